@@ -0,0 +1,147 @@
+package com.example.javafx_cafetera.benchmarks;
+
+import com.example.javafx_cafetera.ColaAnillo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reproduce la forma productor-consumidor de la cafetería sobre distintas colas:
+ * N clientes producen en la cola de clientes, 5 camareros pasan de esa cola a la de
+ * pedidos y 3 baristas consumen pedidos.
+ * Throughput da las operaciones por segundo de cada rol (los contadores {@code clientesEncolados},
+ * {@code pedidosEncolados} y {@code entregados} cuentan solo las operaciones que salieron bien;
+ * {@code llenos} y {@code vacios}, las esperas sin éxito) y SampleTime da la latencia de cola (p99, p99.9...).
+ *
+ * El número de clientes se cambia con la opción de JMH -tg, por ejemplo: -tg 16,5,3
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColasBenchmark {
+    // Igual que las esperas con timeout de Camarero y Barista, pero más cortas para no falsear la medición
+    private static final long ESPERA_US = 1000;
+    private static final Object PEDIDO = new Object();
+
+    @Param({"LINKED", "ARRAY", "TRANSFER", "ANILLO"})
+    public String tipoCola;
+
+    @Param({"1024"})
+    public int capacidad;
+
+    private BlockingQueue<Object> cola;
+    private BlockingQueue<Object> colaPedidosPendientes;
+    // Solo para la LinkedTransferQueue, que no tiene límite: huecos libres de cada cola
+    private Semaphore huecosCola;
+    private Semaphore huecosPedidos;
+
+    @Setup(Level.Iteration)
+    public void crearColas() {
+        cola = crear(tipoCola, capacidad);
+        colaPedidosPendientes = crear(tipoCola, capacidad);
+        boolean sinLimite = tipoCola.equals("TRANSFER");
+        huecosCola = sinLimite ? new Semaphore(capacidad) : null;
+        huecosPedidos = sinLimite ? new Semaphore(capacidad) : null;
+    }
+
+    /**
+     * Contadores por hilo para distinguir las operaciones reales de las esperas sin éxito.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Entregas {
+        public long clientesEncolados;
+        public long pedidosEncolados;
+        public long entregados;
+        public long llenos;
+        public long vacios;
+    }
+
+    @Benchmark
+    @Group("cafeteria")
+    @GroupThreads(4)
+    public boolean cliente(Entregas entregas) throws InterruptedException {
+        boolean encolado = entregar(cola, huecosCola, PEDIDO);
+        if (encolado) {
+            entregas.clientesEncolados++;
+        } else {
+            entregas.llenos++;
+        }
+        return encolado;
+    }
+
+    @Benchmark
+    @Group("cafeteria")
+    @GroupThreads(5)
+    public boolean camarero(Entregas entregas) throws InterruptedException {
+        Object cliente = sacar(cola, huecosCola);
+        if (cliente == null) {
+            entregas.vacios++;
+            return false;
+        }
+        boolean encolado = entregar(colaPedidosPendientes, huecosPedidos, cliente);
+        if (encolado) {
+            entregas.pedidosEncolados++;
+        } else {
+            entregas.llenos++;
+        }
+        return encolado;
+    }
+
+    @Benchmark
+    @Group("cafeteria")
+    @GroupThreads(3)
+    public Object barista(Entregas entregas) throws InterruptedException {
+        Object pedido = sacar(colaPedidosPendientes, huecosPedidos);
+        if (pedido != null) {
+            entregas.entregados++;
+        } else {
+            entregas.vacios++;
+        }
+        return pedido;
+    }
+
+    /**
+     * Las colas acotadas se llenan con offer. La LinkedTransferQueue no tiene límite, así que
+     * antes de su offer se reserva un hueco del semáforo: la ocupación queda acotada igual que en las demás.
+     */
+    private static boolean entregar(BlockingQueue<Object> destino, Semaphore huecos, Object elemento) throws InterruptedException {
+        if (huecos == null) {
+            return destino.offer(elemento, ESPERA_US, TimeUnit.MICROSECONDS);
+        }
+        if (!huecos.tryAcquire(ESPERA_US, TimeUnit.MICROSECONDS)) {
+            return false;
+        }
+        destino.offer(elemento);
+        return true;
+    }
+
+    /**
+     * Saca un elemento esperando como mucho ESPERA_US y, si la cola no tiene límite propio, libera su hueco.
+     */
+    private static Object sacar(BlockingQueue<Object> origen, Semaphore huecos) throws InterruptedException {
+        Object elemento = origen.poll(ESPERA_US, TimeUnit.MICROSECONDS);
+        if (elemento != null && huecos != null) {
+            huecos.release();
+        }
+        return elemento;
+    }
+
+    private static BlockingQueue<Object> crear(String tipo, int capacidad) {
+        return switch (tipo) {
+            case "LINKED" -> new LinkedBlockingQueue<>(capacidad);
+            case "ARRAY" -> new ArrayBlockingQueue<>(capacidad);
+            case "TRANSFER" -> new LinkedTransferQueue<>();
+            case "ANILLO" -> new ColaAnillo<>(capacidad);
+            default -> throw new IllegalArgumentException("Tipo de cola desconocido: " + tipo);
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.javafx_cafetera;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dueño de todos los actores de una simulación (camareros, baristas, clientes y ayudantes).
+ * Cada actor tiene su propio hilo; el ámbito sabe cuáles siguen vivos para poder cancelarlos
+ * todos a la vez y esperar a que terminen, como haría un {@code StructuredTaskScope}.
+ * Una vez cerrado no admite actores nuevos.
+ */
+public class AmbitoActores {
+
+    private final ModoEjecucion modo;
+    private final Set<Thread> vivos = ConcurrentHashMap.newKeySet();
+    private boolean cerrado = false; // protegido por this
+
+    public AmbitoActores(ModoEjecucion modo) {
+        this.modo = modo;
+    }
+
+    /**
+     * Arranca un actor en un hilo propio.
+     * @return false si el ámbito ya está cerrado (el actor no se arranca)
+     */
+    public boolean lanzar(String nombre, Runnable actor) {
+        Thread hilo = modo.crearHilo(nombre, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    actor.run();
+                } finally {
+                    vivos.remove(Thread.currentThread());
+                }
+            }
+        });
+        synchronized (this) {
+            if (cerrado) {
+                return false;
+            }
+            vivos.add(hilo);
+            hilo.start();
+        }
+        return true;
+    }
+
+    /**
+     * Cierra el ámbito e interrumpe a la vez a todos los actores vivos. No espera a que terminen.
+     * @return cuántos actores se han interrumpido
+     */
+    public int cerrar() {
+        List<Thread> hilos;
+        synchronized (this) {
+            cerrado = true;
+            hilos = new ArrayList<>(vivos);
+        }
+        for (Thread hilo : hilos) {
+            hilo.interrupt();
+        }
+        return hilos.size();
+    }
+
+    /**
+     * Espera como mucho el plazo indicado a que terminen todos los actores. El plazo es para
+     * todos juntos, no para cada uno.
+     * @return true si ya no queda ninguno vivo
+     */
+    public boolean esperar(long plazoMs) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plazoMs);
+        for (Thread hilo : new ArrayList<>(vivos)) {
+            long restante = limite - System.nanoTime();
+            if (restante <= 0 || !hilo.join(Duration.ofNanos(restante))) {
+                break;
+            }
+        }
+        return vivos.isEmpty();
+    }
+
+    /**
+     * Espera sin límite a que terminen todos los actores.
+     */
+    public void esperar() throws InterruptedException {
+        for (Thread hilo : new ArrayList<>(vivos)) {
+            hilo.join();
+        }
+    }
+
+    /**
+     * Nombres de los actores que siguen vivos (para avisar de los rezagados).
+     */
+    public List<String> getNombresVivos() {
+        List<String> nombres = new ArrayList<>();
+        for (Thread hilo : vivos) {
+            nombres.add(hilo.getName());
+        }
+        return nombres;
+    }
+}
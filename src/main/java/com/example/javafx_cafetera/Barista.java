@@ -2,59 +2,63 @@ package com.example.javafx_cafetera;
 
 /**
  * Barista: consumidor que prepara los pedidos de la cola de pedidos pendientes.
- * Hereda de Thread y notifica al Cliente cuando el café está listo.
+ * Es un Runnable lanzado por la cafetería y notifica al Cliente cuando el café está listo.
+ * Con un tamaño de lote mayor que 1 prepara a la vez varios pedidos de la misma bebida,
+ * y con personal flexible también ayuda a tomar pedidos.
  */
-public class Barista extends Thread {
-    private final String nombre;
-    private final Cafeteria cafeteria;
-    private volatile String estado = "Disponible";
+public class Barista extends Empleado {
+    // Un lote de n cafés tarda n^0.6 veces lo que uno solo (la máquina se comparte)
+    private static final double EXPONENTE_LOTE = 0.6;
 
-    public Barista(String nombre, Cafeteria cafeteria) {
-        this.nombre = nombre;
-        this.cafeteria = cafeteria;
-        setDaemon(false);
+    public Barista(int id, String nombre, Cafeteria cafeteria) {
+        super(id, nombre, cafeteria);
     }
 
-    public String getNombre() {
-        return nombre;
+    /**
+     * Duración de preparar un lote: crece de forma sublineal con el número de pedidos.
+     * @param duracionUnitariaMs Lo que tardaría un solo café.
+     */
+    public static long duracionLote(long duracionUnitariaMs, int pedidos) {
+        return Math.round(duracionUnitariaMs * Math.pow(pedidos, EXPONENTE_LOTE));
     }
 
-    public String getEstado() {
-        return estado;
+    @Override
+    protected boolean trabajarEnPuestoPropio(long esperaMs) throws InterruptedException {
+        return prepararSiguienteLote(esperaMs);
     }
 
     @Override
-    public void run() {
-        cafeteria.registrar(nombre + " ha empezado como Barista.");
+    protected boolean robarTrabajo() throws InterruptedException {
+        return atenderSiguienteCliente(0);
+    }
 
-        while (cafeteria.estaEnEjecucion() && !Thread.currentThread().isInterrupted()) {
-            try {
-                // Obtener pedido con timeout
-                Pedido pedido = cafeteria.obtenerPedidoDesCola(1000);
-                if (pedido != null) {
-                    Cliente cliente = pedido.getCliente();
-                    estado = "Preparando café para " + cliente.getNombre();
-                    cafeteria.registrar(nombre + " está preparando " + pedido.getBebida() + " para " + cliente.getNombre() + ".");
+    @Override
+    protected int pendientesPropios() {
+        return cafeteria.getTamañoColaPedidos();
+    }
+
+    @Override
+    protected int pendientesAjenos() {
+        return cafeteria.getTamañoCola();
+    }
 
-                    // Simular tiempo de preparación 2-8 segundos
-                    long duracion = 2000 + (int) (Math.random() * 6000);
-                    Thread.sleep(duracion);
+    @Override
+    protected String mensajeInicio() {
+        return " ha empezado como Barista.";
+    }
 
-                    // Notificar cliente que su café está listo
-                    cliente.notificarAtendido();
+    @Override
+    protected String mensajeFin() {
+        return " ha dejado de ser Barista.";
+    }
 
-                    cafeteria.registrar(nombre + " ha finalizado el café de " + cliente.getNombre() + ".");
-                    estado = "Disponible";
-                } else {
-                    estado = "Esperando pedidos";
-                    Thread.sleep(200);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
+    @Override
+    protected String textoSinTrabajo() {
+        return "Esperando pedidos";
+    }
 
-        cafeteria.registrar(nombre + " ha dejado de ser Barista.");
+    @Override
+    protected ContadoresEstado<EstadoEmpleado> contadoresEstado() {
+        return cafeteria.getContadoresBaristas();
     }
 }
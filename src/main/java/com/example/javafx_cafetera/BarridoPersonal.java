@@ -0,0 +1,278 @@
+package com.example.javafx_cafetera;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Barrido Monte Carlo de plantillas: para cada combinación de camareros × baristas ejecuta
+ * varias réplicas del motor de eventos discretos en paralelo (fork-join), cada una con su propio
+ * flujo aleatorio (SplittableRandom.split a partir de una semilla), y escribe en un CSV la media
+ * y el intervalo de confianza al 95 % del abandono (clientes que se van sin café o cuyo pedido
+ * se rechaza), la espera en cola y el throughput.
+ * Al final indica la plantilla más barata cuyo abandono (cota superior del intervalo) queda
+ * por debajo del objetivo.
+ *
+ * Uso: BarridoPersonal [--max-camareros=N] [--max-baristas=N] [--replicas=N] [--segundos=N]
+ *                      [--clientes=N] [--desfase=ms] [--capacidad-pedidos=N]
+ *                      [--politica=bloquear|descartar|reintentar] [--lote=K] [--menu=simple|variado]
+ *                      [--planificador=fifo|sjf|envejecimiento] [--objetivo-abandono=0.15]
+ *                      [--coste-camarero=1] [--coste-barista=1] [--semilla=N] [--hilos=N] [--salida=ruta.csv]
+ */
+public class BarridoPersonal {
+    // Valores críticos de la t de Student (95 %, dos colas) para 1..30 grados de libertad
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    private BarridoPersonal() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        ConfiguracionSimulacion base = new ConfiguracionSimulacion();
+        base.setNumClientes(2000);
+        base.setDesfaseLlegadaMs(1500);
+        int maxCamareros = 8;
+        int maxBaristas = 6;
+        int replicas = 30;
+        long segundos = 3600;
+        double objetivoAbandono = 0.15;
+        double costeCamarero = 1;
+        double costeBarista = 1;
+        long semilla = System.nanoTime();
+        int hilos = Runtime.getRuntime().availableProcessors();
+        Path salida = Path.of("barrido.csv");
+
+        for (String arg : args) {
+            String[] partes = arg.split("=", 2);
+            String valor = partes.length > 1 ? partes[1] : "";
+            try {
+                switch (partes[0]) {
+                    case "--max-camareros" -> maxCamareros = Integer.parseInt(valor);
+                    case "--max-baristas" -> maxBaristas = Integer.parseInt(valor);
+                    case "--replicas" -> replicas = Integer.parseInt(valor);
+                    case "--segundos" -> segundos = Long.parseLong(valor);
+                    case "--clientes" -> base.setNumClientes(Integer.parseInt(valor));
+                    case "--desfase" -> base.setDesfaseLlegadaMs(Long.parseLong(valor));
+                    case "--capacidad-pedidos" -> base.setCapacidadPedidos(Integer.parseInt(valor));
+                    case "--politica" -> base.setPoliticaDesbordamiento(PoliticaDesbordamiento.desdeTexto(valor));
+                    case "--lote" -> base.setTamanoLote(Integer.parseInt(valor));
+                    case "--menu" -> base.setMenuVariado(valor.equals("variado"));
+                    case "--planificador" -> base.setPlanificador(PlanificadorPedidos.desdeTexto(valor));
+                    case "--objetivo-abandono" -> objetivoAbandono = Double.parseDouble(valor);
+                    case "--coste-camarero" -> costeCamarero = Double.parseDouble(valor);
+                    case "--coste-barista" -> costeBarista = Double.parseDouble(valor);
+                    case "--semilla" -> semilla = Long.parseLong(valor);
+                    case "--hilos" -> hilos = Integer.parseInt(valor);
+                    case "--salida" -> salida = Path.of(valor);
+                    default -> {
+                        System.err.println("Argumento desconocido: " + arg);
+                        System.exit(2);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Incluye los números mal escritos (NumberFormatException) y los valores fuera de rango
+                System.err.println("Valor no válido en " + arg + ": " + e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        // Una tarea por combinación y réplica; los flujos aleatorios se reparten antes de paralelizar
+        // para que el resultado dependa solo de la semilla y no del orden de ejecución
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        List<Replica> tareas = new ArrayList<>();
+        for (int c = 1; c <= maxCamareros; c++) {
+            for (int b = 1; b <= maxBaristas; b++) {
+                for (int r = 0; r < replicas; r++) {
+                    tareas.add(new Replica(c, b, raiz.split()));
+                }
+            }
+        }
+
+        System.out.printf("Barrido: %d×%d plantillas, %d réplicas, %d s simulados cada una, %d hilos, semilla %d%n",
+                maxCamareros, maxBaristas, replicas, segundos, hilos, semilla);
+        long inicio = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        try {
+            pool.invoke(new EjecutarReplicas(tareas, 0, tareas.size(), base, segundos * 1000));
+        } finally {
+            pool.shutdown();
+        }
+        double realS = (System.nanoTime() - inicio) / 1e9;
+
+        List<Resumen> resumenes = new ArrayList<>();
+        for (int i = 0; i < tareas.size(); i += replicas) {
+            resumenes.add(Resumen.de(tareas.subList(i, i + replicas)));
+        }
+        escribirCsv(salida, resumenes, objetivoAbandono);
+
+        Resumen mejor = null;
+        double menorCoste = Double.MAX_VALUE;
+        for (Resumen r : resumenes) {
+            double coste = r.camareros() * costeCamarero + r.baristas() * costeBarista;
+            if (r.abandono().cotaSuperior() < objetivoAbandono && coste < menorCoste) {
+                mejor = r;
+                menorCoste = coste;
+            }
+        }
+        System.out.printf("%d simulaciones en %.1f s → %s%n", tareas.size(), realS, salida);
+        if (mejor == null) {
+            System.out.printf("Ninguna plantilla del barrido mantiene el abandono por debajo de %.1f %%.%n", 100 * objetivoAbandono);
+        } else {
+            System.out.printf(Locale.ROOT, "Plantilla más barata con abandono < %.1f %%: %d camareros, %d baristas "
+                            + "(abandono %.2f %% ± %.2f, espera en cola p99 %.0f ms)%n",
+                    100 * objetivoAbandono, mejor.camareros(), mejor.baristas(),
+                    100 * mejor.abandono().media(), 100 * mejor.abandono().semiancho(), mejor.esperaColaP99().media());
+        }
+    }
+
+    private static void escribirCsv(Path ruta, List<Resumen> resumenes, double objetivoAbandono) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(ruta, StandardCharsets.UTF_8))) {
+            out.println("camareros,baristas,replicas,abandono_media,abandono_ic95,espera_cola_p50_ms,espera_cola_p50_ic95,"
+                    + "espera_cola_p99_ms,espera_cola_p99_ic95,espera_pedido_p99_ms,espera_pedido_p99_ic95,"
+                    + "servidos_por_s,servidos_por_s_ic95,cumple_objetivo");
+            for (Resumen r : resumenes) {
+                out.printf(Locale.ROOT, "%d,%d,%d,%.5f,%.5f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.4f,%.4f,%b%n",
+                        r.camareros(), r.baristas(), r.replicas(),
+                        r.abandono().media(), r.abandono().semiancho(),
+                        r.esperaColaP50().media(), r.esperaColaP50().semiancho(),
+                        r.esperaColaP99().media(), r.esperaColaP99().semiancho(),
+                        r.esperaPedidoP99().media(), r.esperaPedidoP99().semiancho(),
+                        r.servidosPorSegundo().media(), r.servidosPorSegundo().semiancho(),
+                        r.abandono().cotaSuperior() < objetivoAbandono);
+            }
+        }
+    }
+
+    /**
+     * Una ejecución del motor de eventos: sus parámetros, su flujo aleatorio y, al acabar, sus resultados.
+     * Cada réplica solo la toca la tarea que la ejecuta.
+     */
+    private static final class Replica {
+        private final int camareros;
+        private final int baristas;
+        private final SplittableRandom aleatorio;
+        private double abandono;
+        private double esperaColaP50Ms;
+        private double esperaColaP99Ms;
+        private double esperaPedidoP99Ms;
+        private double servidosPorSegundo;
+
+        Replica(int camareros, int baristas, SplittableRandom aleatorio) {
+            this.camareros = camareros;
+            this.baristas = baristas;
+            this.aleatorio = aleatorio;
+        }
+
+        void ejecutar(ConfiguracionSimulacion base, long duracionMs) {
+            ConfiguracionSimulacion configuracion = new ConfiguracionSimulacion(base);
+            configuracion.setNumCamareros(camareros);
+            configuracion.setNumBaristas(baristas);
+            SimulacionEventosDiscretos simulacion = new SimulacionEventosDiscretos(configuracion, aleatorio);
+            EstadisticasSimulacion e = simulacion.ejecutar(duracionMs);
+            // Como en RampaCarga: un pedido rechazado por la cola llena también es un cliente perdido
+            abandono = e.getLlegadas() == 0 ? 0 : (double) (e.getAbandonos() + e.getPedidosRechazados()) / e.getLlegadas();
+            esperaColaP50Ms = e.getEsperaCola().percentilMs(50);
+            esperaColaP99Ms = e.getEsperaCola().percentilMs(99);
+            esperaPedidoP99Ms = e.getEsperaPedido().percentilMs(99);
+            servidosPorSegundo = e.getServidos() / Math.max(1e-9, simulacion.getReloj() / 1000.0);
+        }
+    }
+
+    /**
+     * Divide el rango de réplicas hasta que quedan pocas y las ejecuta.
+     */
+    @SuppressWarnings("serial") // Nunca se serializa; solo se ejecuta en el ForkJoinPool
+    private static final class EjecutarReplicas extends RecursiveAction {
+        private static final int UMBRAL = 4;
+        private final List<Replica> replicas;
+        private final int desde;
+        private final int hasta;
+        private final ConfiguracionSimulacion base;
+        private final long duracionMs;
+
+        EjecutarReplicas(List<Replica> replicas, int desde, int hasta, ConfiguracionSimulacion base, long duracionMs) {
+            this.replicas = replicas;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.base = base;
+            this.duracionMs = duracionMs;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= UMBRAL) {
+                for (int i = desde; i < hasta; i++) {
+                    replicas.get(i).ejecutar(base, duracionMs);
+                }
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new EjecutarReplicas(replicas, desde, medio, base, duracionMs),
+                    new EjecutarReplicas(replicas, medio, hasta, base, duracionMs));
+        }
+    }
+
+    /**
+     * Media e intervalo de confianza al 95 % (t de Student) de una métrica sobre las réplicas.
+     */
+    private record Intervalo(double media, double semiancho) {
+        static Intervalo de(double[] valores) {
+            int n = valores.length;
+            double suma = 0;
+            for (double v : valores) {
+                suma += v;
+            }
+            double media = suma / n;
+            if (n < 2) {
+                return new Intervalo(media, 0);
+            }
+            double cuadrados = 0;
+            for (double v : valores) {
+                cuadrados += (v - media) * (v - media);
+            }
+            double desviacion = Math.sqrt(cuadrados / (n - 1));
+            double t = n - 1 <= T_95.length ? T_95[n - 2] : 1.96;
+            return new Intervalo(media, t * desviacion / Math.sqrt(n));
+        }
+
+        double cotaSuperior() {
+            return media + semiancho;
+        }
+    }
+
+    /**
+     * Resultados agregados de una combinación de camareros × baristas.
+     */
+    private record Resumen(int camareros, int baristas, int replicas, Intervalo abandono, Intervalo esperaColaP50,
+                           Intervalo esperaColaP99, Intervalo esperaPedidoP99, Intervalo servidosPorSegundo) {
+        static Resumen de(List<Replica> replicas) {
+            int n = replicas.size();
+            double[] abandono = new double[n];
+            double[] p50 = new double[n];
+            double[] p99 = new double[n];
+            double[] pedidoP99 = new double[n];
+            double[] servidos = new double[n];
+            for (int i = 0; i < n; i++) {
+                Replica r = replicas.get(i);
+                abandono[i] = r.abandono;
+                p50[i] = r.esperaColaP50Ms;
+                p99[i] = r.esperaColaP99Ms;
+                pedidoP99[i] = r.esperaPedidoP99Ms;
+                servidos[i] = r.servidosPorSegundo;
+            }
+            Replica primera = replicas.get(0);
+            return new Resumen(primera.camareros, primera.baristas, n, Intervalo.de(abandono), Intervalo.de(p50),
+                    Intervalo.de(p99), Intervalo.de(pedidoP99), Intervalo.de(servidos));
+        }
+    }
+}
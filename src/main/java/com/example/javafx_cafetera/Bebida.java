@@ -0,0 +1,75 @@
+package com.example.javafx_cafetera;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Carta de bebidas. Cada una tiene su propia distribución de tiempo de preparación
+ * (uniforme entre un mínimo y mínimo + rango) y un peso que indica lo a menudo que se pide.
+ * El Café Simple conserva los 2-8 s de la simulación original.
+ */
+public enum Bebida {
+    ESPRESSO("Espresso", 1000, 2000, 3),
+    CAFE_SIMPLE("Café Simple", 2000, 6000, 4),
+    CAPUCHINO("Capuchino", 4000, 4000, 2),
+    FRAPPE("Frappé", 8000, 6000, 1);
+
+    private static final Bebida[] VALORES = values();
+    private static final int PESO_TOTAL = calcularPesoTotal();
+
+    private final String nombre;
+    private final long preparacionMinMs;
+    private final long preparacionRangoMs;
+    private final int peso;
+
+    Bebida(String nombre, long preparacionMinMs, long preparacionRangoMs, int peso) {
+        this.nombre = nombre;
+        this.preparacionMinMs = preparacionMinMs;
+        this.preparacionRangoMs = preparacionRangoMs;
+        this.peso = peso;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Tiempo de preparación esperado: lo que usa el planificador para ordenar los pedidos.
+     */
+    public long getPreparacionMediaMs() {
+        return preparacionMinMs + preparacionRangoMs / 2;
+    }
+
+    /**
+     * Tiempo de preparación de una unidad, sorteado con la distribución de la bebida.
+     */
+    public long duracionAleatoriaMs(RandomGenerator aleatorio) {
+        return preparacionMinMs + aleatorio.nextLong(preparacionRangoMs);
+    }
+
+    /**
+     * Sortea una bebida de la carta según su peso.
+     */
+    public static Bebida aleatoria(RandomGenerator aleatorio) {
+        int n = aleatorio.nextInt(PESO_TOTAL);
+        for (Bebida b : VALORES) {
+            n -= b.peso;
+            if (n < 0) {
+                return b;
+            }
+        }
+        return CAFE_SIMPLE;
+    }
+
+    private static int calcularPesoTotal() {
+        int total = 0;
+        for (Bebida b : values()) {
+            total += b.peso;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.javafx_cafetera;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Búfer de mensajes de registro entre los actores y la vista.
+ * Los actores publican sin cerrojos en una {@link ColaAnillo} (si está llena el mensaje se
+ * descarta y se cuenta) y la vista lo vacía por lotes una vez por fotograma.
+ * La marca de tiempo se guarda como número y solo se formatea al vaciar.
+ */
+public class BufferRegistro {
+    private static final DateTimeFormatter FORMATO_HORA =
+            DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final ColaAnillo<Entrada> cola;
+    private final LongAdder descartados = new LongAdder();
+    private final List<Entrada> lote = new ArrayList<>();
+
+    // Caché del último segundo formateado: casi todos los mensajes de un lote comparten segundo
+    private long ultimoSegundo = Long.MIN_VALUE;
+    private String ultimaHora = "";
+
+    /**
+     * @param capacidad Mensajes que pueden quedar pendientes entre dos vaciados.
+     */
+    public BufferRegistro(int capacidad) {
+        this.cola = new ColaAnillo<>(capacidad);
+    }
+
+    /**
+     * Publica un mensaje. Puede llamarse desde cualquier hilo y nunca bloquea.
+     */
+    public void publicar(long instanteMs, String mensaje) {
+        if (!cola.offer(new Entrada(instanteMs, mensaje))) {
+            descartados.increment();
+        }
+    }
+
+    /**
+     * Vacía hasta {@code maximo} mensajes ya formateados en {@code destino}.
+     * Debe llamarse siempre desde el mismo hilo (el de la vista).
+     * @return Número de líneas añadidas.
+     */
+    public int drenar(List<String> destino, int maximo) {
+        int antes = destino.size();
+        long perdidos = descartados.sumThenReset();
+        if (perdidos > 0) {
+            destino.add("... " + perdidos + " mensajes descartados (registro saturado)");
+        }
+        lote.clear();
+        cola.drainTo(lote, maximo);
+        for (Entrada entrada : lote) {
+            destino.add("[" + formatearHora(entrada.instanteMs()) + "] " + entrada.mensaje());
+        }
+        lote.clear();
+        return destino.size() - antes;
+    }
+
+    private String formatearHora(long instanteMs) {
+        long segundo = instanteMs / 1000;
+        if (segundo != ultimoSegundo) {
+            ultimoSegundo = segundo;
+            ultimaHora = FORMATO_HORA.format(Instant.ofEpochMilli(instanteMs));
+        }
+        return ultimaHora;
+    }
+
+    private record Entrada(long instanteMs, String mensaje) {
+    }
+}
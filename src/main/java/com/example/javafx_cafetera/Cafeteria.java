@@ -1,126 +1,436 @@
 package com.example.javafx_cafetera;
 
-import javafx.application.Platform;
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
  * Clase modelo que gestiona la simulación de la cafetería.
  * Administra camareros, clientes, cola de atención y la lógica de simulación continua.
+ * No depende de JavaFX: publica sus eventos a los {@link OyenteCafeteria} suscritos.
  */
 public class Cafeteria {
+    /** Tiempo de espera que hace bloquear a los empleados en la cola hasta que haya trabajo. */
+    public static final long ESPERA_INDEFINIDA = -1;
+    /** Tras este tiempo deteniendo la simulación se avisa de qué actores siguen vivos (y se sigue esperando). */
+    private static final long PLAZO_AVISO_PARADA_MS = 2000;
+
     private final BlockingQueue<Cliente> cola = new LinkedBlockingQueue<>();
-    private final BlockingQueue<Pedido> colaPedidosPendientes = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Pedido> colaPedidosPendientes;
     private final List<Camarero> camareros = Collections.synchronizedList(new ArrayList<>());
     private final List<Barista> baristas = Collections.synchronizedList(new ArrayList<>());
-    private final List<Cliente> clientes = Collections.synchronizedList(new ArrayList<>());
-
-    // Capacidad máxima de la cola de pedidos
-    private static final int MAX_PEDIDOS = 10;
-
-    private final ExecutorService ejecutor = Executors.newCachedThreadPool();
+    private final RegistroClientes registroClientes = new RegistroClientes();
+    // Cuántos actores hay en cada estado ahora mismo; consultarlos es O(1) y no reserva memoria
+    private final ContadoresEstado<EstadoCliente> contadoresClientes = new ContadoresEstado<>(EstadoCliente.class);
+    private final ContadoresEstado<EstadoEmpleado> contadoresCamareros = new ContadoresEstado<>(EstadoEmpleado.class);
+    private final ContadoresEstado<EstadoEmpleado> contadoresBaristas = new ContadoresEstado<>(EstadoEmpleado.class);
+
+    // Capacidad máxima de la cola de pedidos y qué hacer cuando está llena
+    private final int MAX_PEDIDOS;
+    private final PoliticaDesbordamiento politicaDesbordamiento;
+    private final int tamanoLote;
+    private final boolean personalFlexible;
+    private final boolean menuVariado;
+
+    // Nombre de la sucursal (también el del MBean)
+    private final String nombre;
+
+    // Lanza un hilo (de plataforma o virtual) por cada actor, todos bajo el mismo ámbito
+    private final ModoEjecucion modo;
+    private final AmbitoActores actores;
     private volatile boolean enEjecucion = false;
 
-    private final CafeteriaController controlador;
+    // Suscriptores (interfaz gráfica, consola...). Sin suscriptores no se formatea ni copia nada.
+    private final List<OyenteCafeteria> oyentes = new CopyOnWriteArrayList<>();
+    private final EstadisticasSimulacion estadisticas = new EstadisticasSimulacion();
+    private volatile MetricasCafeteria metricas; // se crea al abrir, cuando ya hay reloj de simulación
+    // Los productores solo marcan que algo cambió; la vista decide cuándo tomar una instantánea
+    private final AtomicBoolean estadoModificado = new AtomicBoolean(true);
 
     // Parámetros de la simulación
-    private final int NUM_CAMAREROS = 5;
-    private final int NUM_BARISTAS = 3;
-    private final int NUM_CLIENTES = 10;
+    private final int NUM_CAMAREROS;
+    private final int NUM_BARISTAS;
+    private final int NUM_CLIENTES;
+    private final long DESFASE_LLEGADA_MS;
+    private final double escalaTiempo;
+    // Cuándo arrancó y se detuvo esta ejecución (0 si aún no) y cuánto tiempo de simulación llevaba antes de reanudarse
+    private volatile long inicioEjecucionNs;
+    private volatile long finEjecucionNs;
+    private long simuladoPrevioMs = 0;
     private int contadorClientesDinamicos = 0;
+    private final AtomicInteger contadorIdsClientes = new AtomicInteger();
+    // Raíz de los flujos aleatorios: cada actor recibe el suyo con split() al crearse
+    private final SplittableRandom aleatorioRaiz;
+    // Clientes admitidos que aún no han llegado a la cola (cuentan como carga para el enrutador)
+    private final AtomicInteger clientesEnCamino = new AtomicInteger();
+    // Autoescalado de la plantilla (null si está desactivado; el controlador se crea al arrancar)
+    // y números para los empleados que se incorporan
+    private final ConfiguracionSimulacion configuracionAutoescalado;
+    private final AtomicInteger contadorIdsCamareros = new AtomicInteger();
+    private final AtomicInteger contadorIdsBaristas = new AtomicInteger();
+    // Llegadas en lazo abierto (null con la tanda cerrada de clientes iniciales)
+    private final GeneradorLlegadas generadorLlegadas;
+
+    /**
+     * Constructor de la cafetería con la configuración por defecto.
+     */
+    public Cafeteria() {
+        this(new ConfiguracionSimulacion());
+    }
 
     /**
      * Constructor de la cafetería.
-     * @param controlador El controlador que gestiona la interfaz gráfica.
+     * @param configuracion Parámetros del escenario (modo de ejecución, número de actores...).
      */
-    public Cafeteria(CafeteriaController controlador) {
-        this.controlador = controlador;
+    public Cafeteria(ConfiguracionSimulacion configuracion) {
+        this(configuracion, "principal");
+    }
+
+    /**
+     * Constructor de una cafetería con nombre, por ejemplo una sucursal de {@link RedCafeterias}.
+     * @param configuracion Parámetros del escenario (modo de ejecución, número de actores...).
+     * @param nombre Nombre de la sucursal; con él se publica el MBean.
+     */
+    public Cafeteria(ConfiguracionSimulacion configuracion, String nombre) {
+        this.nombre = nombre;
+        this.modo = configuracion.getModo();
+        this.actores = new AmbitoActores(modo);
+        this.NUM_CAMAREROS = configuracion.getNumCamareros();
+        this.NUM_BARISTAS = configuracion.getNumBaristas();
+        this.NUM_CLIENTES = configuracion.getNumClientes();
+        this.DESFASE_LLEGADA_MS = configuracion.getDesfaseLlegadaMs();
+        this.escalaTiempo = configuracion.getEscalaTiempo();
+        this.MAX_PEDIDOS = configuracion.getCapacidadPedidos();
+        this.politicaDesbordamiento = configuracion.getPoliticaDesbordamiento();
+        this.tamanoLote = configuracion.getTamanoLote();
+        this.personalFlexible = configuracion.isPersonalFlexible();
+        this.menuVariado = configuracion.isMenuVariado();
+        this.aleatorioRaiz = configuracion.crearAleatorio();
+        this.colaPedidosPendientes = configuracion.getPlanificador().crearCola(MAX_PEDIDOS);
+        this.configuracionAutoescalado = configuracion.isAutoescalado() ? configuracion : null;
+        this.generadorLlegadas = configuracion.getProcesoLlegadas().esAbierto()
+                ? GeneradorLlegadas.desde(configuracion, aleatorioRaiz.split()) : null;
+    }
+
+    /**
+     * Suscribe un oyente a los eventos de la simulación.
+     */
+    public void suscribir(OyenteCafeteria oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Cancela la suscripción de un oyente.
+     */
+    public void desuscribir(OyenteCafeteria oyente) {
+        oyentes.remove(oyente);
+    }
+
+    /**
+     * Obtiene los contadores de la simulación.
+     */
+    public EstadisticasSimulacion getEstadisticas() {
+        return estadisticas;
     }
 
     /**
      * Inicia la simulación de la cafetería.
-     * Crea camareros y clientes, y comienza los hilos de ejecución.
+     * Crea camareros y clientes, y los lanza en su propio hilo según el modo elegido.
      */
     public void iniciarSimulacion() {
+        arrancarPlantilla(NUM_CAMAREROS, NUM_BARISTAS);
+
+        if (generadorLlegadas != null) {
+            arrancarGeneradorLlegadas();
+            return;
+        }
+
+        // Crear clientes iniciales
+        for (int i = 1; i <= NUM_CLIENTES; i++) {
+            admitirCliente("Cliente-" + i);
+            // Pequeño desfase para simular llegadas
+            if (DESFASE_LLEGADA_MS > 0) {
+                dormirSinVerificacion(DESFASE_LLEGADA_MS);
+            }
+        }
+    }
+
+    /**
+     * Reanuda una simulación desde un punto de control: la plantilla que había, las estadísticas
+     * acumuladas y cada cliente en su cola, con la paciencia que le quedaba.
+     * Los pedidos que no caben en la cola de pedidos esperan su turno como un camarero bloqueado.
+     */
+    public void reanudarSimulacion(PuntoControl punto) {
+        estadisticas.acumular(punto.estadisticas());
+        simuladoPrevioMs = punto.simuladoMs();
+        contadorClientesDinamicos = punto.clientesDinamicos();
+        arrancarPlantilla(punto.numCamareros(), punto.numBaristas());
+        registrar(String.format("Reanudando desde el punto de control del %tF %<tT: %d clientes.",
+                punto.capturadoMs(), punto.clientes().size()));
+
+        List<Pedido> sinHueco = new ArrayList<>();
+        for (PuntoControl.ClienteGuardado guardado : punto.clientes()) {
+            Cliente cliente = new Cliente(guardado.nombre(), this, guardado.pacienciaMs());
+            if (!guardado.haLlegado()) {
+                clientesEnCamino.incrementAndGet();
+                darDeAlta(cliente);
+                lanzarCliente(cliente);
+                continue;
+            }
+            darDeAlta(cliente);
+            cliente.restaurarEspera(guardado.esperadoMs(), guardado.bebida());
+            if (guardado.bebida() == null) {
+                cliente.setInstanteEnColaNs(System.nanoTime());
+                cola.add(cliente);
+            } else {
+                Pedido pedido = new Pedido(cliente, guardado.bebida());
+                pedido.setInstanteEncoladoNs(System.nanoTime());
+                if (!sinHueco.isEmpty() || !colaPedidosPendientes.offer(pedido)) {
+                    sinHueco.add(pedido);
+                }
+            }
+            lanzarCliente(cliente);
+        }
+        if (!sinHueco.isEmpty()) {
+            actores.lanzar("Reanudacion-pedidos", new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (Pedido pedido : sinHueco) {
+                            colaPedidosPendientes.put(pedido);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+
+        if (generadorLlegadas != null) {
+            arrancarGeneradorLlegadas();
+        }
+    }
+
+    /**
+     * Lanza camareros, baristas y, si está activado, el autoescalado.
+     */
+    private void arrancarPlantilla(int numCamareros, int numBaristas) {
         enEjecucion = true;
+        inicioEjecucionNs = System.nanoTime();
+        metricas = new MetricasCafeteria(this, estadisticas);
+        metricas.publicar(nombre);
+        registrar("Modo de ejecución: " + modo);
+
+        contadorIdsCamareros.set(numCamareros);
+        contadorIdsBaristas.set(numBaristas);
 
         // Crear camareros
-        for (int i = 1; i <= NUM_CAMAREROS; i++) {
-            Camarero c = new Camarero("Camarero-" + i, this);
+        for (int i = 1; i <= numCamareros; i++) {
+            Camarero c = new Camarero(i, "Camarero-" + i, this);
             camareros.add(c);
-            c.start();
+            actores.lanzar(c.getNombre(), c);
         }
 
         // Crear baristas
-        for (int i = 1; i <= NUM_BARISTAS; i++) {
-            Barista b = new Barista("Barista-" + i, this);
+        for (int i = 1; i <= numBaristas; i++) {
+            Barista b = new Barista(i, "Barista-" + i, this);
             baristas.add(b);
-            b.start();
+            actores.lanzar(b.getNombre(), b);
         }
 
-        // Crear clientes iniciales
-        for (int i = 1; i <= NUM_CLIENTES; i++) {
-            Cliente cl = new Cliente("Cliente-" + i, this);
-            clientes.add(cl);
-            cl.start();
-            // Pequeño desfase para simular llegadas
-            dormirSinVerificacion(200);
+        if (configuracionAutoescalado != null) {
+            actores.lanzar("Controlador-personal", new ControladorPersonal(this, configuracionAutoescalado));
         }
+    }
 
-        // Actualizar interfaz periódicamente (Thread de actualización)
-        Thread actualizadorUI = new Thread(new ActualizadorInterfaz());
-        actualizadorUI.setDaemon(true);
-        actualizadorUI.start();
+    /**
+     * Lazo abierto: los clientes llegan a su ritmo en lugar de la tanda inicial.
+     */
+    private void arrancarGeneradorLlegadas() {
+        actores.lanzar("Generador-llegadas", new Runnable() {
+            @Override
+            public void run() {
+                generarLlegadas();
+            }
+        });
     }
 
     /**
-     * Detiene la simulación de forma segura.
+     * Captura un punto de control sin detener a los actores: copia las colas (cada una bajo su
+     * propio cerrojo, un instante) y el registro de clientes, y calcula cuánto lleva esperando cada uno.
+     * El resultado es inmutable y se puede escribir a disco desde otro hilo.
+     * Como los actores siguen trabajando, un cliente que cambia de cola justo durante la captura
+     * se guarda en una sola de ellas (primero cuentan la cola de pedidos y la de clientes).
      */
-    public void detenerSimulacion() {
-        enEjecucion = false;
-        ejecutor.shutdownNow();
-        try {
-            if (!ejecutor.awaitTermination(2, TimeUnit.SECONDS)) {
-                // Forzar terminación si es necesario
+    public PuntoControl capturarPuntoControl() {
+        long ahoraMs = System.currentTimeMillis();
+        long simuladoMs = Math.round(getSegundosSimulados() * 1000);
+        EstadisticasSimulacion copia = new EstadisticasSimulacion();
+        copia.acumular(estadisticas);
+        Set<Cliente> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        List<PuntoControl.ClienteGuardado> pedidosEnCola = new ArrayList<>();
+        for (Object o : colaPedidosPendientes.toArray()) {
+            Pedido p = (Pedido) o;
+            if (!p.getDesenlace().isDone() && vistos.add(p.getCliente())) {
+                pedidosEnCola.add(guardar(p.getCliente(), ahoraMs, p.getBebida()));
             }
-        } catch (InterruptedException ignorado) {
-            Thread.currentThread().interrupt();
         }
-        // Interrumpir y esperar a camareros
-        for (Camarero c : new ArrayList<>(camareros)) {
-            c.interrupt();
-            try {
-                c.join(1000);
-            } catch (InterruptedException ignored) {
-                Thread.currentThread().interrupt();
+        List<PuntoControl.ClienteGuardado> clientesEnCola = new ArrayList<>();
+        for (Object o : cola.toArray()) {
+            Cliente c = (Cliente) o;
+            if (!c.seHaIdo() && vistos.add(c)) {
+                clientesEnCola.add(guardar(c, ahoraMs, null));
+            }
+        }
+
+        // El resto de presentes estaba en manos de un empleado o aún no había llegado a la cola
+        List<PuntoControl.ClienteGuardado> pedidosEnMarcha = new ArrayList<>();
+        List<PuntoControl.ClienteGuardado> clientesAtendiendose = new ArrayList<>();
+        List<PuntoControl.ClienteGuardado> sinLlegar = new ArrayList<>();
+        for (Cliente c : registroClientes.copiaPresentes()) {
+            if (c.seHaIdo() || vistos.contains(c)) {
+                continue;
+            }
+            EstadoCliente estado = c.getEstado();
+            if (estado == EstadoCliente.ESPERANDO_CAFE) {
+                pedidosEnMarcha.add(guardar(c, ahoraMs, c.getBebida()));
+            } else if (estado.esEspera()) {
+                clientesAtendiendose.add(guardar(c, ahoraMs, null));
+            } else if (estado == EstadoCliente.PENDIENTE || estado == EstadoCliente.LLEGO) {
+                sinLlegar.add(new PuntoControl.ClienteGuardado(c.getNombre(), c.getPacienciaSimuladaMs(), -1, null));
             }
         }
 
-        // Interrumpir y esperar a baristas
-        for (Barista b : new ArrayList<>(baristas)) {
-            b.interrupt();
+        // Lo que ya estaba en marcha va delante de lo que seguía en cola
+        List<PuntoControl.ClienteGuardado> clientes = new ArrayList<>();
+        clientes.addAll(pedidosEnMarcha);
+        clientes.addAll(pedidosEnCola);
+        clientes.addAll(clientesAtendiendose);
+        clientes.addAll(clientesEnCola);
+        clientes.addAll(sinLlegar);
+        return new PuntoControl(nombre, ahoraMs, simuladoMs, getNumCamareros(), getNumBaristas(),
+                contadorClientesDinamicos, copia, List.copyOf(clientes));
+    }
+
+    /**
+     * Guarda un cliente con la paciencia y la espera en ms de simulación, para poder reanudar con otra escala.
+     */
+    private PuntoControl.ClienteGuardado guardar(Cliente c, long ahoraMs, Bebida bebida) {
+        long inicio = c.getTiempoInicioEspera();
+        long esperadoMs = inicio > 0 ? desescalarMs(Math.max(0, ahoraMs - inicio)) : 0;
+        return new PuntoControl.ClienteGuardado(c.getNombre(), c.getPacienciaSimuladaMs(), esperadoMs, bebida);
+    }
+
+    /**
+     * Nombres de los actores que siguen vivos (por ejemplo, los que no han terminado tras detener la simulación).
+     */
+    public List<String> getActoresVivos() {
+        return actores.getNombresVivos();
+    }
+
+    /**
+     * Segundos de simulación transcurridos, incluidos los de antes de reanudar desde un punto de control.
+     * Las estadísticas van en tiempo de simulación, así que sus ritmos se calculan con este tiempo.
+     * Deja de avanzar al detener la simulación.
+     */
+    public double getSegundosSimulados() {
+        long inicio = inicioEjecucionNs;
+        if (inicio == 0) {
+            return simuladoPrevioMs / 1000.0;
+        }
+        long fin = finEjecucionNs != 0 ? finEjecucionNs : System.nanoTime();
+        return simuladoPrevioMs / 1000.0 + aSimuladoNs(fin - inicio) / 1e9;
+    }
+
+    /**
+     * Captura un punto de control y lo escribe en otro hilo, para no frenar la simulación con la E/S.
+     * @return Se completa cuando el fichero está escrito (o con la excepción de E/S).
+     */
+    public CompletableFuture<PuntoControl> guardarPuntoControl(Path ruta) {
+        PuntoControl punto = capturarPuntoControl();
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                b.join(1000);
-            } catch (InterruptedException ignored) {
-                Thread.currentThread().interrupt();
+                punto.escribir(ruta);
+                return punto;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        });
+    }
+
+    /**
+     * Detiene la simulación de forma segura. Interrumpe a la vez a todos los actores
+     * (camareros, baristas y clientes) y no vuelve hasta que ha terminado el último,
+     * así que una simulación nueva nunca convive con actores de la anterior.
+     */
+    public void detenerSimulacion() {
+        if (inicioEjecucionNs != 0 && finEjecucionNs == 0) {
+            finEjecucionNs = System.nanoTime();
         }
+        enEjecucion = false;
+        long inicioNs = System.nanoTime();
+        int interrumpidos = actores.cerrar();
+        try {
+            if (!actores.esperar(PLAZO_AVISO_PARADA_MS)) {
+                registrar("Esperando a actores que no terminan: " + actores.getNombresVivos());
+                actores.esperar();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        registrar(String.format("%d actores detenidos en %d ms.",
+                interrumpidos, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNs)));
 
         // Limpiar colecciones
         camareros.clear();
         baristas.clear();
-        clientes.clear();
+        registroClientes.limpiar();
+        contadoresClientes.reiniciar();
+        contadoresCamareros.reiniciar();
+        contadoresBaristas.reiniciar();
         cola.clear();
         colaPedidosPendientes.clear();
         contadorClientesDinamicos = 0;
-        Platform.runLater(new Runnable() {
-            @Override
-            public void run() {
-                controlador.simulacionFinalizada();
+        if (metricas != null) {
+            metricas.retirar();
+        }
+        marcarModificado();
+        for (OyenteCafeteria oyente : oyentes) {
+            oyente.alFinalizarSimulacion();
+        }
+    }
+
+    /**
+     * Admite un cliente en cada instante que marca el generador de llegadas, sin esperar a que
+     * la cafetería dé abasto. Si se queda atrás, admite de golpe los atrasados.
+     */
+    private void generarLlegadas() {
+        long inicioNs = System.nanoTime();
+        int n = 0;
+        try {
+            while (enEjecucion) {
+                // Los instantes del generador son de simulación; la tasa es por segundo simulado
+                long llegadaNs = inicioNs + escalarNs(generadorLlegadas.siguienteLlegadaMs());
+                long esperaNs = llegadaNs - System.nanoTime();
+                if (esperaNs > 0) {
+                    TimeUnit.NANOSECONDS.sleep(esperaNs);
+                }
+                if (!enEjecucion) {
+                    break;
+                }
+                n++;
+                admitirCliente("Cliente-Llegada-" + n);
             }
-        });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -129,13 +439,195 @@ public class Cafeteria {
     public void anadirClienteDinamico() {
         if (enEjecucion) {
             contadorClientesDinamicos++;
-            Cliente nuevoCliente = new Cliente("Cliente-Dinámico-" + contadorClientesDinamicos, this);
-            clientes.add(nuevoCliente);
-            nuevoCliente.start();
+            Cliente nuevoCliente = admitirCliente("Cliente-Dinámico-" + contadorClientesDinamicos);
             registrar("Nuevo cliente añadido: " + nuevoCliente.getNombre());
         }
     }
 
+    /**
+     * Crea un cliente en esta cafetería y lo lanza (lo usa el enrutador de {@link RedCafeterias}).
+     */
+    public Cliente admitirCliente(String nombreCliente) {
+        return admitirCliente(nombreCliente, false);
+    }
+
+    /**
+     * Crea un cliente y lo lanza.
+     * @param llegadaInmediata Si entra directamente en la cola, sin el retardo de llegada
+     *                         (así llegan los pedidos del {@link ServidorPedidos}).
+     */
+    public Cliente admitirCliente(String nombreCliente, boolean llegadaInmediata) {
+        Cliente cliente = new Cliente(nombreCliente, this);
+        cliente.setLlegadaInmediata(llegadaInmediata);
+        clientesEnCamino.incrementAndGet();
+        darDeAlta(cliente);
+        lanzarCliente(cliente);
+        return cliente;
+    }
+
+    /**
+     * Lanza el hilo del cliente. Si la simulación ya se ha detenido no llega a arrancar,
+     * así que se le da de baja en el momento.
+     */
+    private void lanzarCliente(Cliente cliente) {
+        if (!actores.lanzar(cliente.getNombre(), cliente)) {
+            clientesEnCamino.decrementAndGet();
+            salidaCliente(cliente);
+        }
+    }
+
+    private void darDeAlta(Cliente cliente) {
+        registroClientes.alta(cliente);
+        contadoresClientes.entrar(cliente.getEstado());
+        for (OyenteCafeteria oyente : oyentes) {
+            oyente.alEntrarCliente(cliente);
+        }
+        marcarModificado();
+    }
+
+    /**
+     * Quita del registro a un cliente que ha terminado (lo llama el propio cliente al salir).
+     */
+    void salidaCliente(Cliente cliente) {
+        if (registroClientes.baja(cliente)) {
+            contadoresClientes.salir(cliente.getEstado());
+            for (OyenteCafeteria oyente : oyentes) {
+                oyente.alSalirCliente(cliente);
+            }
+            marcarModificado();
+        }
+    }
+
+    /**
+     * Lo llama el cliente tras cambiar de estado, para mantener los contadores por estado.
+     */
+    void transicionCliente(EstadoCliente desde, EstadoCliente hasta) {
+        contadoresClientes.transicion(desde, hasta);
+    }
+
+    /**
+     * Clientes que están ahora mismo en el estado indicado.
+     */
+    public long getClientesEnEstado(EstadoCliente estado) {
+        return contadoresClientes.get(estado);
+    }
+
+    /**
+     * Clientes que siguen esperando su café (en cola o con el pedido ya tomado).
+     */
+    public long getClientesEsperando() {
+        return contadoresClientes.get(EstadoCliente.EN_COLA)
+                + contadoresClientes.get(EstadoCliente.EN_COLA_REINTENTO)
+                + contadoresClientes.get(EstadoCliente.ESPERANDO_CAFE);
+    }
+
+    ContadoresEstado<EstadoEmpleado> getContadoresCamareros() {
+        return contadoresCamareros;
+    }
+
+    ContadoresEstado<EstadoEmpleado> getContadoresBaristas() {
+        return contadoresBaristas;
+    }
+
+    /**
+     * Baristas con un lote en marcha ahora mismo.
+     */
+    public long getBaristasPreparando() {
+        return contadoresBaristas.get(EstadoEmpleado.PREPARANDO);
+    }
+
+    public RegistroClientes getRegistroClientes() {
+        return registroClientes;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Trabajo pendiente de la sucursal: clientes en camino y en cola más pedidos sin preparar.
+     * Es lo que compara el enrutador para elegir sucursal. Contar a los que están en camino evita
+     * mandar una ráfaga entera a la misma sucursal antes de que su cola crezca.
+     */
+    public int getCarga() {
+        return clientesEnCamino.get() + cola.size() + colaPedidosPendientes.size();
+    }
+
+    /**
+     * Incorpora un camarero más durante la simulación (autoescalado).
+     */
+    public void contratarCamarero() {
+        if (enEjecucion) {
+            int n = contadorIdsCamareros.incrementAndGet();
+            Camarero c = new Camarero(n, "Camarero-" + n, this);
+            camareros.add(c);
+            actores.lanzar(c.getNombre(), c);
+            registrar("Autoescalado: se incorpora " + c.getNombre() + ".");
+        }
+    }
+
+    /**
+     * Incorpora un barista más durante la simulación (autoescalado).
+     */
+    public void contratarBarista() {
+        if (enEjecucion) {
+            int n = contadorIdsBaristas.incrementAndGet();
+            Barista b = new Barista(n, "Barista-" + n, this);
+            baristas.add(b);
+            actores.lanzar(b.getNombre(), b);
+            registrar("Autoescalado: se incorpora " + b.getNombre() + ".");
+        }
+    }
+
+    /**
+     * Retira al último camarero incorporado cuando termine su tarea actual.
+     */
+    public void retirarCamarero() {
+        retirarUltimo(camareros);
+    }
+
+    /**
+     * Retira al último barista incorporado cuando termine su lote actual.
+     */
+    public void retirarBarista() {
+        retirarUltimo(baristas);
+    }
+
+    private void retirarUltimo(List<? extends Empleado> empleados) {
+        Empleado e;
+        synchronized (empleados) {
+            if (empleados.isEmpty()) {
+                return;
+            }
+            e = empleados.remove(empleados.size() - 1);
+        }
+        // Deja de aparecer en la plantilla ya, pero no suelta el cliente o pedido que tenga entre manos
+        e.solicitarRetiro();
+        registrar("Autoescalado: " + e.getNombre() + " se retirará al acabar su tarea.");
+    }
+
+    public int getNumCamareros() {
+        return camareros.size();
+    }
+
+    public int getNumBaristas() {
+        return baristas.size();
+    }
+
+    /**
+     * Indica si la plantilla cambia durante la simulación según la carga.
+     */
+    public boolean esAutoescalado() {
+        return configuracionAutoescalado != null;
+    }
+
+    /**
+     * Asigna el identificador numérico de un cliente nuevo.
+     */
+    int siguienteIdCliente() {
+        return contadorIdsClientes.incrementAndGet();
+    }
+
     /**
      * Verifica si la simulación está en ejecución.
      */
@@ -147,32 +639,195 @@ public class Cafeteria {
      * Añade un cliente a la cola de espera.
      */
     public void encolarCliente(Cliente c) throws InterruptedException {
+        estadisticas.registrarLlegada();
+        clientesEnCamino.decrementAndGet();
+        ponerEnCola(c);
+    }
+
+    /**
+     * Devuelve a la cola a un cliente al que se le pidió reintentar más tarde.
+     * Su paciencia sigue contando desde la primera vez que se puso en cola.
+     */
+    public void reencolarCliente(Cliente c) throws InterruptedException {
+        ponerEnCola(c);
+    }
+
+    private void ponerEnCola(Cliente c) throws InterruptedException {
+        // El evento se emite antes del put para que nunca quede detrás de PEDIDO_TOMADO
+        notificarEvento(TipoEvento.EN_COLA, c, 0);
+        c.setInstanteEnColaNs(System.nanoTime());
         cola.put(c);
         registrar(String.format("%s se ha puesto en cola.", c.getNombre()));
-        actualizarInterfaz();
     }
 
     /**
-     * Obtiene un cliente de la cola con timeout.
+     * Obtiene un cliente de la cola con timeout; con {@link #ESPERA_INDEFINIDA} bloquea hasta que llegue uno.
+     * Los clientes que ya se fueron se descartan sin atenderlos.
      */
     public Cliente obtenerClienteDesCola(long tiempoEsperaMs) throws InterruptedException {
-        return cola.poll(tiempoEsperaMs, TimeUnit.MILLISECONDS);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tiempoEsperaMs);
+        while (true) {
+            Cliente c = tiempoEsperaMs == ESPERA_INDEFINIDA
+                    ? cola.take()
+                    : cola.poll(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (c == null) {
+                return null;
+            }
+            if (!c.seHaIdo()) {
+                estadisticas.getEsperaCola().registrar(aSimuladoNs(System.nanoTime() - c.getInstanteEnColaNs()));
+                return c;
+            }
+            cancelar(c);
+        }
     }
 
     /**
      * Añade un pedido a la cola de pedidos pendientes (productor: camarero).
+     * Si la cola está llena aplica la política de desbordamiento configurada: bloquear al
+     * camarero hasta que haya hueco, descartar el pedido o pedir al cliente que reintente.
+     * @return true si el pedido quedó en la cola; false si se descartó o se pidió reintentar.
      */
-    public void encolarPedido(Pedido p) throws InterruptedException {
-        colaPedidosPendientes.put(p);
-        registrar("Pedido añadido: " + p.getBebida() + " para " + p.getCliente().getNombre());
-        actualizarInterfaz();
+    public boolean encolarPedido(Pedido p) throws InterruptedException {
+        Cliente cliente = p.getCliente();
+        notificarEvento(TipoEvento.PEDIDO_ENCOLADO, cliente, 0);
+        p.setInstanteEncoladoNs(System.nanoTime());
+        if (!colaPedidosPendientes.offer(p)) {
+            switch (politicaDesbordamiento) {
+                case BLOQUEAR -> {
+                    // La espera bloqueada también cuenta como espera del pedido
+                    long inicioBloqueo = System.nanoTime();
+                    colaPedidosPendientes.put(p);
+                    estadisticas.registrarBloqueo(aSimuladoNs(System.nanoTime() - inicioBloqueo));
+                }
+                case DESCARTAR -> {
+                    estadisticas.registrarPedidoRechazado();
+                    notificarEvento(TipoEvento.PEDIDO_RECHAZADO, cliente, 0);
+                    registrar("Cola de pedidos llena: se descarta el pedido de " + cliente.getNombre() + ".");
+                    p.finalizar(DesenlacePedido.RECHAZADO);
+                    return false;
+                }
+                case REINTENTAR -> {
+                    estadisticas.registrarReintento();
+                    notificarEvento(TipoEvento.PEDIDO_REINTENTO, cliente, 0);
+                    registrar("Cola de pedidos llena: " + cliente.getNombre() + " tendrá que volver a la cola.");
+                    p.finalizar(DesenlacePedido.REINTENTAR);
+                    return false;
+                }
+            }
+        }
+        registrar("Pedido añadido: " + p.getBebida() + " para " + cliente.getNombre());
+        return true;
     }
 
     /**
-     * Obtiene un pedido de la cola de pedidos pendientes con timeout (consumidor: barista).
+     * Obtiene un pedido de la cola de pedidos pendientes con timeout (consumidor: barista);
+     * con {@link #ESPERA_INDEFINIDA} bloquea hasta que llegue uno.
+     * Los pedidos de clientes que ya se fueron se descartan sin prepararlos.
      */
     public Pedido obtenerPedidoDesCola(long tiempoEsperaMs) throws InterruptedException {
-        return colaPedidosPendientes.poll(tiempoEsperaMs, TimeUnit.MILLISECONDS);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tiempoEsperaMs);
+        while (true) {
+            Pedido p = tiempoEsperaMs == ESPERA_INDEFINIDA
+                    ? colaPedidosPendientes.take()
+                    : colaPedidosPendientes.poll(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (p == null || !descartarSiCancelado(p)) {
+                return p;
+            }
+        }
+    }
+
+    /**
+     * Si el cliente del pedido ya se fue, cuenta el pedido como cancelado.
+     * @return true si el pedido debe descartarse.
+     */
+    public boolean descartarSiCancelado(Pedido p) {
+        if (!p.getDesenlace().isDone()) {
+            return false;
+        }
+        cancelar(p.getCliente());
+        return true;
+    }
+
+    private void cancelar(Cliente c) {
+        estadisticas.registrarCancelado();
+        notificarEvento(TipoEvento.CANCELADO, c, 0);
+        registrar(c.getNombre() + " ya se había ido: se descarta sin atenderlo.");
+    }
+
+    /**
+     * Registra el tiempo que un empleado trabajó para un cliente.
+     * @param nanos Nanosegundos de simulación.
+     * @param util false si el cliente ya se había ido al terminar.
+     */
+    public void registrarTrabajo(long nanos, boolean util) {
+        estadisticas.registrarTrabajo(nanos, util);
+    }
+
+    /**
+     * Saca sin esperar hasta {@code maximo} pedidos de la bebida indicada (para preparar en lote),
+     * en el orden del planificador. Los de otras bebidas se quedan en la cola.
+     * @return Número de pedidos añadidos a {@code destino}.
+     */
+    public int drenarPedidos(Collection<Pedido> destino, int maximo, Bebida bebida) {
+        int n = 0;
+        for (Pedido p : colaPedidosPendientes) {
+            if (n >= maximo) {
+                break;
+            }
+            // remove() falla si otro barista se lo ha llevado entre tanto
+            if (p.getBebida() == bebida && colaPedidosPendientes.remove(p)) {
+                destino.add(p);
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Marca el inicio de la preparación de un pedido y mide cuánto esperó en la cola de pedidos.
+     */
+    public void iniciarPreparacion(Pedido p, int idBarista) {
+        long ahora = System.nanoTime();
+        estadisticas.registrarEsperaPedido(p.getBebida(), aSimuladoNs(ahora - p.getInstanteEncoladoNs()));
+        p.setInicioPreparacionNs(ahora);
+        notificarEvento(TipoEvento.PREPARACION_INICIO, p.getCliente(), idBarista);
+    }
+
+    /**
+     * Bebida que pide un cliente: una de la carta según su peso, o Café Simple sin carta variada.
+     * @param aleatorio Flujo aleatorio del camarero que toma el pedido.
+     */
+    public Bebida elegirBebida(RandomGenerator aleatorio) {
+        return menuVariado ? Bebida.aleatoria(aleatorio) : Bebida.CAFE_SIMPLE;
+    }
+
+    /**
+     * Flujo aleatorio propio para un actor nuevo. SplittableRandom.split() no es seguro entre hilos,
+     * así que se sincroniza; solo se llama al crear actores, no en cada sorteo.
+     */
+    synchronized SplittableRandom nuevoFlujoAleatorio() {
+        return aleatorioRaiz.split();
+    }
+
+    /**
+     * Pedidos compatibles que un barista prepara a la vez.
+     */
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    /**
+     * Obtiene el número de clientes esperando en la cola de atención.
+     */
+    public int getTamañoCola() {
+        return cola.size();
+    }
+
+    /**
+     * Indica si camareros y baristas pueden robar trabajo de la otra etapa.
+     */
+    public boolean esPersonalFlexible() {
+        return personalFlexible;
     }
 
     /**
@@ -190,17 +845,18 @@ public class Cafeteria {
     }
 
     /**
-     * Registra un mensaje en el área de registro de la interfaz.
+     * Registra un mensaje y lo envía a los oyentes suscritos.
+     * Todo mensaje acompaña a un cambio de estado, así que también marca el estado como modificado.
      */
     public void registrar(String mensaje) {
-        String ts = String.format("[%tT] ", new Date());
-        String completo = ts + mensaje;
-        Platform.runLater(new Runnable() {
-            @Override
-            public void run() {
-                controlador.anadirRegistro(completo);
-            }
-        });
+        marcarModificado();
+        if (oyentes.isEmpty()) {
+            return;
+        }
+        long instante = System.currentTimeMillis();
+        for (OyenteCafeteria oyente : oyentes) {
+            oyente.alRegistrar(instante, mensaje);
+        }
     }
 
     /**
@@ -208,70 +864,156 @@ public class Cafeteria {
      */
     public void notificarClienteAtendido(Cliente c, String nombreCamarero) {
         registrar(String.format("%s atendido por %s.", c.getNombre(), nombreCamarero));
-        actualizarInterfaz();
     }
 
     /**
-     * Actualiza la interfaz gráfica con los estados actuales.
+     * Envía un evento del ciclo de vida de un cliente a los oyentes (por ejemplo, al diario binario).
      */
-    private void actualizarInterfaz() {
-        // Construir listas de estados y objetos cliente
-        List<Cliente> clientesActuales;
-        synchronized (clientes) {
-            clientesActuales = new ArrayList<>(clientes);
+    public void notificarEvento(TipoEvento tipo, Cliente c, int idEmpleado) {
+        for (OyenteCafeteria oyente : oyentes) {
+            oyente.alEvento(tipo, c.getId(), idEmpleado);
         }
+    }
+
+    /**
+     * Notifica que un barista ha terminado un pedido.
+     */
+    public void notificarPedidoPreparado(Pedido p, String nombreBarista) {
+        estadisticas.registrarPedidoPreparado();
+        estadisticas.getPreparacion().registrar(aSimuladoNs(System.nanoTime() - p.getInicioPreparacionNs()));
+        registrar(nombreBarista + " ha finalizado el café de " + p.getCliente().getNombre() + ".");
+    }
 
-        List<String> estadosCamareros;
+    /**
+     * Notifica que un empleado ha hecho una tarea de la otra etapa.
+     */
+    public void notificarRobo() {
+        estadisticas.registrarRobo();
+    }
+
+    /**
+     * Notifica que un barista ha terminado un lote completo.
+     */
+    public void notificarLotePreparado() {
+        estadisticas.registrarLote();
+    }
+
+    /**
+     * Notifica que un cliente se ha marchado porque su pedido fue descartado.
+     * No cuenta como abandono: ya se contó como pedido rechazado.
+     */
+    public void notificarClienteRechazado(Cliente c) {
+        registrar(c.getNombre() + " se fue sin su café (pedido rechazado).");
+    }
+
+    /**
+     * Notifica que un cliente se ha marchado, con o sin su café.
+     */
+    public void notificarClienteSeFue(Cliente c, boolean servido) {
+        notificarEvento(servido ? TipoEvento.SERVIDO : TipoEvento.ABANDONO, c, 0);
+        if (servido) {
+            estadisticas.registrarServido();
+            registrar(c.getNombre() + " se fue con su café.");
+        } else {
+            estadisticas.registrarAbandono();
+            registrar(c.getNombre() + " se fue sin su café (paciencia agotada).");
+        }
+    }
+
+    /**
+     * Marca que el estado visible ha cambiado. Solo escribe si no estaba ya marcado,
+     * para no invalidar la línea de caché en cada evento.
+     */
+    private void marcarModificado() {
+        if (!estadoModificado.get()) {
+            estadoModificado.set(true);
+        }
+    }
+
+    /**
+     * Devuelve una instantánea del estado si ha cambiado desde la última, o null si no.
+     */
+    public InstantaneaCafeteria tomarInstantaneaSiModificada() {
+        if (!estadoModificado.getAndSet(false)) {
+            return null;
+        }
+        return tomarInstantanea();
+    }
+
+    /**
+     * Construye una copia inmutable de los estados actuales. Los textos de estado se componen
+     * aquí, solo cuando la vista pide una instantánea.
+     */
+    public InstantaneaCafeteria tomarInstantanea() {
+        List<String> estadosCamareros = new ArrayList<>();
         synchronized (camareros) {
-            estadosCamareros = new ArrayList<>();
             for (Camarero cm : camareros) {
-                estadosCamareros.add(cm.getNombre() + " - " + cm.getEstado());
+                estadosCamareros.add(cm.getNombre() + " - " + cm.describirEstado());
             }
         }
 
-        List<String> estadosBaristas;
+        List<String> estadosBaristas = new ArrayList<>();
         synchronized (baristas) {
-            estadosBaristas = new ArrayList<>();
             for (Barista b : baristas) {
-                estadosBaristas.add(b.getNombre() + " - " + b.getEstado());
+                estadosBaristas.add(b.getNombre() + " - " + b.describirEstado());
             }
         }
 
-        int tamañoColaPedidos = colaPedidosPendientes.size();
+        return new InstantaneaCafeteria(List.copyOf(estadosCamareros), List.copyOf(estadosBaristas),
+                colaPedidosPendientes.size(), MAX_PEDIDOS);
+    }
 
-        // Llamadas seguras al controlador
-        Platform.runLater(new Runnable() {
-            @Override
-            public void run() {
-                controlador.actualizarListaClientes(clientesActuales);
-                controlador.actualizarListaCamareros(estadosCamareros);
-                controlador.actualizarListaBaristas(estadosBaristas);
-                controlador.actualizarBarraPedidos(tamañoColaPedidos, MAX_PEDIDOS);
-            }
-        });
+    /**
+     * Duerme {@code ms} milisegundos de simulación, según la escala de tiempo.
+     */
+    void dormir(long ms) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(escalarNs(ms));
     }
 
     /**
-     * Duerme el hilo de forma segura sin lanzar excepción.
+     * Nanosegundos reales que dura un intervalo de {@code ms} milisegundos de simulación.
      */
-    private void dormirSinVerificacion(long ms) {
-        try {
-            Thread.sleep(ms);
-        } catch (InterruptedException ignorado) {
-            Thread.currentThread().interrupt();
-        }
+    long escalarNs(long ms) {
+        return Math.round(TimeUnit.MILLISECONDS.toNanos(ms) * escalaTiempo);
     }
 
     /**
-     * Clase interna para actualizar la interfaz periódicamente.
+     * Factor entre el tiempo real y el de simulación (1 = tiempo real; 0.01 = cien veces más rápido).
      */
-    private class ActualizadorInterfaz implements Runnable {
-        @Override
-        public void run() {
-            while (enEjecucion) {
-                actualizarInterfaz();
-                dormirSinVerificacion(500);
-            }
+    public double getEscalaTiempo() {
+        return escalaTiempo;
+    }
+
+    /**
+     * Nanosegundos de simulación que corresponden a {@code ns} nanosegundos reales.
+     * Todo lo que se mide con el reloj real pasa por aquí antes de llegar a las estadísticas.
+     */
+    long aSimuladoNs(long ns) {
+        return Math.round(ns / escalaTiempo);
+    }
+
+    /**
+     * Milisegundos de simulación que corresponden a {@code ms} milisegundos reales.
+     */
+    long desescalarMs(long ms) {
+        return Math.round(ms / escalaTiempo);
+    }
+
+    /**
+     * Milisegundos reales (al menos 1) que dura un intervalo de {@code ms} milisegundos de simulación.
+     */
+    long escalarMs(long ms) {
+        return Math.max(1, Math.round(ms * escalaTiempo));
+    }
+
+    /**
+     * Duerme {@code ms} milisegundos de simulación de forma segura, sin lanzar excepción.
+     */
+    private void dormirSinVerificacion(long ms) {
+        try {
+            dormir(ms);
+        } catch (InterruptedException ignorado) {
+            Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+}
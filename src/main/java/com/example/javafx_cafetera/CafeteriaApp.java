@@ -13,10 +13,19 @@ import static javafx.application.Application.launch;
  * Inicia la ventana principal y carga la vista FXML.
  */
 public class CafeteriaApp extends Application {
+    private CafeteriaController controlador;
+
+    /**
+     * Constructor público que necesita {@link Application#launch}.
+     */
+    public CafeteriaApp() {
+    }
+
     @Override
     public void start(Stage escena) throws Exception {
         FXMLLoader cargador = new FXMLLoader(getClass().getResource("CafeteriaView.fxml"));
         Parent raiz = cargador.load();
+        controlador = cargador.getController();
         Scene vista = new Scene(raiz, 1000, 600);
         // Cargar estilos globales
         try {
@@ -30,4 +39,14 @@ public class CafeteriaApp extends Application {
         escena.show();
     }
 
+    /**
+     * Al cerrar la ventana se guarda un punto de control de la simulación en curso.
+     */
+    @Override
+    public void stop() {
+        if (controlador != null) {
+            controlador.cerrar();
+        }
+    }
+
 }
\ No newline at end of file
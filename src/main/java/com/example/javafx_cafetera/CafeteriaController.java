@@ -1,6 +1,8 @@
 package com.example.javafx_cafetera;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -9,13 +11,27 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Controlador de la interfaz gráfica de la cafetería.
- * Gestiona la interacción del usuario y actualiza la vista según el estado del modelo.
+ * Gestiona la interacción del usuario y actualiza la vista según el estado del modelo,
+ * al que está suscrito como {@link OyenteCafeteria}.
  */
-public class CafeteriaController {
+public class CafeteriaController implements OyenteCafeteria {
     @FXML
     private ListView<String> listaCamareros;
 
@@ -26,7 +42,7 @@ public class CafeteriaController {
     private ListView<Cliente> listaClientes;
 
     @FXML
-    private TextArea areaRegistro;
+    private ListView<String> listaRegistro;
 
     @FXML
     private Button botonIniciar;
@@ -37,74 +53,106 @@ public class CafeteriaController {
     @FXML
     private Button botonAnadirCliente;
 
+    @FXML
+    private Button botonReanudar;
+
     @FXML
     private ProgressBar barraPedidos;
 
     @FXML
     private Label labelPedidos;
 
+    @FXML
+    private Label labelLatencias;
+
     private Cafeteria cafeteria;
 
     private boolean enEjecucion = false;
 
+    // Mientras se detiene una simulación (fuera del hilo de JavaFX) no se puede arrancar otra
+    private boolean deteniendo = false;
+
+    // Al cerrar la ventana se espera como mucho esto a que terminen los actores
+    private static final long PLAZO_CIERRE_MS = 5000;
+
+    // Las barras de paciencia avanzan aunque no haya eventos: se fuerza una instantánea cada 500 ms
+    private static final long REFRESCO_FORZADO_NS = 500_000_000L;
+
+    // Punto de control que se guarda al reiniciar o cerrar y desde el que se puede reanudar
+    private static final Path RUTA_PUNTO_CONTROL = Path.of(System.getProperty("cafeteria.puntoControl", "cafeteria.punto"));
+
+    // Líneas de registro que se conservan en la vista (configurable con -Dcafeteria.registro.lineas)
+    private static final int LINEAS_REGISTRO = Integer.getInteger("cafeteria.registro.lineas", 1000);
+    // Mensajes que se vuelcan como mucho por fotograma; el resto espera al siguiente
+    private static final int REGISTRO_POR_FOTOGRAMA = 2048;
+
+    // Celdas creadas por listaClientes (solo las visibles y algunas de reserva); las que
+    // el ListView descarta desaparecen solas del conjunto
+    private final Set<CeldaCliente> celdasClientes = Collections.newSetFromMap(new WeakHashMap<>());
+
+    // Entradas y salidas de clientes pendientes de aplicar a listaClientes (true = entra)
+    private final Queue<CambioCliente> cambiosClientes = new ConcurrentLinkedQueue<>();
+
+    private final BufferRegistro bufferRegistro = new BufferRegistro(16 * 1024);
+    private final List<String> loteRegistro = new ArrayList<>();
+
+    /**
+     * Único pulso de la interfaz: en cada fotograma publica como mucho una instantánea del modelo.
+     * El coste de la vista no depende de cuántos eventos ocurran por segundo.
+     */
+    private final AnimationTimer pulso = new AnimationTimer() {
+        private long ultimaInstantanea = 0;
+
+        @Override
+        public void handle(long ahora) {
+            drenarRegistro();
+            aplicarCambiosClientes();
+            actualizarCeldasClientes();
+            if (cafeteria == null) {
+                return;
+            }
+            InstantaneaCafeteria instantanea = cafeteria.tomarInstantaneaSiModificada();
+            if (instantanea == null && ahora - ultimaInstantanea >= REFRESCO_FORZADO_NS) {
+                instantanea = cafeteria.tomarInstantanea();
+            }
+            if (instantanea != null) {
+                ultimaInstantanea = ahora;
+                aplicarInstantanea(instantanea);
+            }
+        }
+    };
+
+    /**
+     * Constructor público que necesita el FXMLLoader; la configuración se hace en {@link #initialize()}.
+     */
+    public CafeteriaController() {
+    }
+
     /**
      * Método de inicialización del controlador.
      * Configura los controles de la interfaz.
      */
     @FXML
     private void initialize() {
-        areaRegistro.setEditable(false);
-        areaRegistro.setWrapText(true);
-
         botonReiniciar.setDisable(true);
         botonAnadirCliente.setDisable(true);
+        botonReanudar.setDisable(!Files.exists(RUTA_PUNTO_CONTROL));
 
-        // Configurar CellFactory para listaClientes mostrando barra de paciencia
+        // Configurar CellFactory para listaClientes: celdas reutilizables con barra de paciencia
         listaClientes.setCellFactory(new javafx.util.Callback<ListView<Cliente>, ListCell<Cliente>>() {
             @Override
             public ListCell<Cliente> call(ListView<Cliente> param) {
-                return new ListCell<Cliente>() {
-                    @Override
-                    protected void updateItem(Cliente item, boolean empty) {
-                        super.updateItem(item, empty);
-                        if (empty || item == null) {
-                            setGraphic(null);
-                            setText(null);
-                        } else {
-                            // Crear HBox con nombre y barra de paciencia
-                            HBox celda = new HBox(8);
-                            celda.setPadding(new Insets(5));
-
-                            // Etiqueta con nombre y estado
-                            Label etiqueta = new Label(item.getNombre() + " - " + item.getEstado());
-                            etiqueta.setStyle("-fx-font-size: 11;");
-
-                            // ProgressBar de paciencia
-                            ProgressBar barraEspera = new ProgressBar();
-                            barraEspera.setPrefWidth(80);
-                            barraEspera.setStyle("-fx-padding: 2;");
-
-                            // Calcular progreso: (tiempo transcurrido) / (paciencia total)
-                            if (item.getTiempoInicioEspera() > 0 && item.getEstado().contains("Esperando")) {
-                                long tiempoTranscurrido = System.currentTimeMillis() - item.getTiempoInicioEspera();
-                                double progreso = (double) tiempoTranscurrido / item.getPacienciaMs();
-                                barraEspera.setProgress(Math.min(progreso, 1.0));
-                            } else {
-                                barraEspera.setProgress(0);
-                            }
-
-                            celda.getChildren().addAll(etiqueta, barraEspera);
-                            HBox.setHgrow(barraEspera, Priority.ALWAYS);
-                            setGraphic(celda);
-                        }
-                    }
-                };
+                CeldaCliente celda = new CeldaCliente();
+                celdasClientes.add(celda);
+                return celda;
             }
         });
 
         if (barraPedidos != null) {
             barraPedidos.setProgress(0);
         }
+
+        pulso.start();
     }
 
     /**
@@ -113,8 +161,9 @@ public class CafeteriaController {
      */
     @FXML
     private void alIniciarClicked(MouseEvent evento) {
-        if (!enEjecucion) {
-            cafeteria = new Cafeteria(this);
+        if (!enEjecucion && !deteniendo) {
+            cafeteria = new Cafeteria();
+            cafeteria.suscribir(this);
             cafeteria.iniciarSimulacion();
             enEjecucion = true;
             botonIniciar.setDisable(true);
@@ -130,14 +179,139 @@ public class CafeteriaController {
      */
     @FXML
     private void alReiniciarClicked(MouseEvent evento) {
+        if (cafeteria != null && !deteniendo) {
+            guardarPuntoControl();
+            detenerYLuego(new Runnable() {
+                @Override
+                public void run() {
+                    anadirRegistro("Simulación detenida (reinicio).");
+                    cafeteria = new Cafeteria();
+                    cafeteria.suscribir(CafeteriaController.this);
+                    cafeteria.iniciarSimulacion();
+                    anadirRegistro("Simulación reiniciada.");
+                    botonReiniciar.setDisable(false);
+                    botonAnadirCliente.setDisable(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Manejador del clic en el botón "Reanudar".
+     * Detiene la simulación actual (si la hay) y continúa la del último punto de control guardado.
+     */
+    @FXML
+    private void alReanudarClicked(MouseEvent evento) {
+        PuntoControl punto;
+        try {
+            punto = PuntoControl.leer(RUTA_PUNTO_CONTROL);
+        } catch (IOException e) {
+            anadirRegistro("No se pudo leer el punto de control: " + e.getMessage());
+            return;
+        }
+        if (deteniendo) {
+            return;
+        }
+        Runnable reanudar = new Runnable() {
+            @Override
+            public void run() {
+                cafeteria = new Cafeteria();
+                cafeteria.suscribir(CafeteriaController.this);
+                cafeteria.reanudarSimulacion(punto);
+                enEjecucion = true;
+                botonIniciar.setDisable(true);
+                botonReiniciar.setDisable(false);
+                botonAnadirCliente.setDisable(false);
+                anadirRegistro("Simulación reanudada desde " + RUTA_PUNTO_CONTROL + ".");
+            }
+        };
         if (cafeteria != null) {
-            cafeteria.detenerSimulacion();
-            anadirRegistro("Simulación detenida (reinicio).");
+            detenerYLuego(reanudar);
+        } else {
+            reanudar.run();
+        }
+    }
 
-            cafeteria = new Cafeteria(this);
-            cafeteria.iniciarSimulacion();
-            anadirRegistro("Simulación reiniciada.");
-            botonAnadirCliente.setDisable(false);
+    /**
+     * Detiene la simulación actual en un hilo virtual, para que un actor que tarde en
+     * terminar no congele la ventana, y después ejecuta {@code despues} en el hilo de JavaFX
+     * con la lista de clientes ya vacía. Mientras tanto los botones quedan desactivados.
+     */
+    private void detenerYLuego(Runnable despues) {
+        Cafeteria anterior = cafeteria;
+        // Deja de escuchar antes de parar: los avisos de la simulación vieja no deben llegar a la nueva
+        anterior.desuscribir(this);
+        cafeteria = null;
+        deteniendo = true;
+        botonIniciar.setDisable(true);
+        botonReiniciar.setDisable(true);
+        botonAnadirCliente.setDisable(true);
+        botonReanudar.setDisable(true);
+        anadirRegistro("Deteniendo la simulación...");
+        Thread.ofVirtual().name("Parada-simulacion").start(new Runnable() {
+            @Override
+            public void run() {
+                anterior.detenerSimulacion();
+                Platform.runLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        deteniendo = false;
+                        cambiosClientes.clear();
+                        listaClientes.getItems().clear();
+                        botonReanudar.setDisable(!Files.exists(RUTA_PUNTO_CONTROL));
+                        despues.run();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Guarda un punto de control de la simulación en curso. La escritura va en otro hilo;
+     * el resultado aparece en el registro.
+     */
+    private CompletableFuture<PuntoControl> guardarPuntoControl() {
+        return cafeteria.guardarPuntoControl(RUTA_PUNTO_CONTROL).whenComplete((punto, error) -> {
+            if (error != null) {
+                anadirRegistro("No se pudo guardar el punto de control: " + error.getMessage());
+            } else {
+                anadirRegistro("Punto de control guardado: " + punto.clientes().size() + " clientes en curso.");
+                Platform.runLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        botonReanudar.setDisable(false);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Lo llama la aplicación al cerrar la ventana: guarda un punto de control (esperando a que
+     * esté escrito) y detiene la simulación, esperando como mucho {@link #PLAZO_CIERRE_MS}.
+     */
+    public void cerrar() {
+        pulso.stop();
+        if (cafeteria != null && enEjecucion) {
+            try {
+                guardarPuntoControl().join();
+            } catch (CompletionException e) {
+                System.err.println("No se pudo guardar el punto de control: " + e.getCause().getMessage());
+            }
+            Cafeteria anterior = cafeteria;
+            Thread parada = Thread.ofVirtual().name("Parada-simulacion").start(new Runnable() {
+                @Override
+                public void run() {
+                    anterior.detenerSimulacion();
+                }
+            });
+            try {
+                if (!parada.join(Duration.ofMillis(PLAZO_CIERRE_MS))) {
+                    System.err.println("Actores sin terminar al cerrar: " + anterior.getActoresVivos());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
@@ -147,106 +321,202 @@ public class CafeteriaController {
      */
     @FXML
     private void alAnadirClienteClicked(MouseEvent evento) {
-        if (cafeteria != null && enEjecucion) {
+        if (cafeteria != null && enEjecucion && !deteniendo) {
             cafeteria.anadirClienteDinamico();
         }
     }
 
+    @Override
+    public void alRegistrar(long instanteMs, String mensaje) {
+        bufferRegistro.publicar(instanteMs, mensaje);
+    }
+
+    @Override
+    public void alEntrarCliente(Cliente cliente) {
+        cambiosClientes.add(new CambioCliente(cliente, true));
+    }
+
+    @Override
+    public void alSalirCliente(Cliente cliente) {
+        cambiosClientes.add(new CambioCliente(cliente, false));
+    }
+
+    @Override
+    public void alFinalizarSimulacion() {
+        Platform.runLater(new Runnable() {
+            @Override
+            public void run() {
+                simulacionFinalizada();
+            }
+        });
+    }
+
     /**
-     * Añade un mensaje al área de registro.
-     * Ejecutado en el hilo de JavaFX si es necesario.
+     * Añade un mensaje al registro. Puede llamarse desde cualquier hilo:
+     * se mostrará en el siguiente fotograma.
      */
     public void anadirRegistro(String mensaje) {
-        if (Platform.isFxApplicationThread()) {
-            areaRegistro.appendText(mensaje + "\n");
-            areaRegistro.setScrollTop(Double.MAX_VALUE);
+        bufferRegistro.publicar(System.currentTimeMillis(), mensaje);
+    }
+
+    /**
+     * Vuelca de golpe los mensajes pendientes en la lista de registro (virtualizada)
+     * y recorta las líneas más antiguas para no superar LINEAS_REGISTRO.
+     */
+    private void drenarRegistro() {
+        if (bufferRegistro.drenar(loteRegistro, REGISTRO_POR_FOTOGRAMA) == 0) {
+            return;
+        }
+        ObservableList<String> lineas = listaRegistro.getItems();
+        if (loteRegistro.size() >= LINEAS_REGISTRO) {
+            lineas.setAll(loteRegistro.subList(loteRegistro.size() - LINEAS_REGISTRO, loteRegistro.size()));
         } else {
-            Platform.runLater(new Runnable() {
-                @Override
-                public void run() {
-                    areaRegistro.appendText(mensaje + "\n");
-                    areaRegistro.setScrollTop(Double.MAX_VALUE);
-                }
-            });
+            int sobrantes = lineas.size() + loteRegistro.size() - LINEAS_REGISTRO;
+            if (sobrantes > 0) {
+                lineas.remove(0, sobrantes);
+            }
+            lineas.addAll(loteRegistro);
         }
+        loteRegistro.clear();
+        listaRegistro.scrollTo(lineas.size() - 1);
     }
 
     /**
-     * Actualiza la lista de clientes en la interfaz.
+     * Aplica a listaClientes las entradas y salidas ocurridas desde el fotograma anterior.
+     * Como mucho una pasada por la lista de presentes por fotograma, salgan los clientes que salgan.
      */
-    public void actualizarListaClientes(List<Cliente> clientesActuales) {
-        if (Platform.isFxApplicationThread()) {
-            listaClientes.getItems().setAll(clientesActuales);
-        } else {
-            Platform.runLater(new Runnable() {
-                @Override
-                public void run() {
-                    listaClientes.getItems().setAll(clientesActuales);
-                }
-            });
+    private void aplicarCambiosClientes() {
+        List<Cliente> entran = new ArrayList<>();
+        Set<Cliente> salen = new HashSet<>();
+        CambioCliente cambio;
+        while ((cambio = cambiosClientes.poll()) != null) {
+            if (cambio.entra()) {
+                entran.add(cambio.cliente());
+            } else {
+                salen.add(cambio.cliente());
+            }
+        }
+        ObservableList<Cliente> items = listaClientes.getItems();
+        if (!entran.isEmpty()) {
+            items.addAll(entran);
+        }
+        if (!salen.isEmpty()) {
+            items.removeAll(salen);
         }
     }
 
     /**
-     * Actualiza la lista de camareros en la interfaz.
+     * Avanza las barras de paciencia y el estado de las celdas visibles con una sola lectura del reloj.
      */
-    public void actualizarListaCamareros(List<String> estadosCamareros) {
-        if (Platform.isFxApplicationThread()) {
-            listaCamareros.getItems().setAll(estadosCamareros);
-        } else {
-            Platform.runLater(new Runnable() {
-                @Override
-                public void run() {
-                    listaCamareros.getItems().setAll(estadosCamareros);
-                }
-            });
+    private void actualizarCeldasClientes() {
+        long ahoraMs = System.currentTimeMillis();
+        for (CeldaCliente celda : celdasClientes) {
+            celda.actualizar(ahoraMs);
         }
     }
 
     /**
-     * Actualiza la lista de baristas en la interfaz.
+     * Vuelca una instantánea del modelo en los controles. Se ejecuta en el hilo de JavaFX.
      */
-    public void actualizarListaBaristas(List<String> estadosBaristas) {
-        if (Platform.isFxApplicationThread()) {
-            listaBaristas.getItems().setAll(estadosBaristas);
-        } else {
-            Platform.runLater(new Runnable() {
-                @Override
-                public void run() {
-                    listaBaristas.getItems().setAll(estadosBaristas);
-                }
-            });
+    private void aplicarInstantanea(InstantaneaCafeteria instantanea) {
+        listaCamareros.getItems().setAll(instantanea.estadosCamareros());
+        listaBaristas.getItems().setAll(instantanea.estadosBaristas());
+        actualizarBarraPedidos(instantanea.pedidosPendientes(), instantanea.maximoPedidos());
+        actualizarLatencias(cafeteria.getEstadisticas());
+    }
+
+    /**
+     * Muestra los percentiles por etapa y los contadores de la simulación.
+     */
+    private void actualizarLatencias(EstadisticasSimulacion estadisticas) {
+        if (labelLatencias == null) {
+            return;
         }
+        RegistroClientes registro = cafeteria.getRegistroClientes();
+        labelLatencias.setText(String.format(
+                "Cola:       %s%nPedido:     %s%nPreparación: %s%nServidos: %d | Abandonos: %d%n"
+                        + "Clientes presentes: %d | Esperando ahora: %d | Han pasado: %d | Estancia media: %.1f s",
+                EstadisticasSimulacion.formatearPercentiles(estadisticas.getEsperaCola()),
+                EstadisticasSimulacion.formatearPercentiles(estadisticas.getEsperaPedido()),
+                EstadisticasSimulacion.formatearPercentiles(estadisticas.getPreparacion()),
+                estadisticas.getServidos(), estadisticas.getAbandonos(),
+                registro.getPresentes(), cafeteria.getClientesEsperando(), registro.getFinalizados(), registro.getEstanciaMediaMs() / 1000));
     }
 
     /**
      * Actualiza la barra de progreso de pedidos pendientes.
      */
-    public void actualizarBarraPedidos(int actual, int maximo) {
-        if (Platform.isFxApplicationThread()) {
-            if (barraPedidos != null) {
-                double progreso = (double) actual / maximo;
-                barraPedidos.setProgress(Math.min(progreso, 1.0));
+    private void actualizarBarraPedidos(int actual, int maximo) {
+        if (barraPedidos != null) {
+            double progreso = (double) actual / maximo;
+            barraPedidos.setProgress(Math.min(progreso, 1.0));
+        }
+        if (labelPedidos != null) {
+            labelPedidos.setText("Pedidos: " + actual + "/" + maximo);
+        }
+    }
+
+    /**
+     * Celda de cliente con su nombre, estado y barra de paciencia. Los nodos se crean una sola vez;
+     * al reutilizarla para otro cliente solo cambian los valores. El pulso de la interfaz la
+     * actualiza en cada fotograma con {@link #actualizar(long)}.
+     */
+    private static class CeldaCliente extends ListCell<Cliente> {
+        // Cambios de progreso menores que esto no se aplican, para no relanzar el layout
+        private static final double PASO_PROGRESO = 0.005;
+
+        private final HBox contenido = new HBox(8);
+        private final Label etiqueta = new Label();
+        private final ProgressBar barraEspera = new ProgressBar(0);
+        // Estado mostrado, para no recomponer el texto si no ha cambiado
+        private EstadoCliente estadoMostrado;
+
+        CeldaCliente() {
+            contenido.setPadding(new Insets(5));
+            etiqueta.setStyle("-fx-font-size: 11;");
+            barraEspera.setPrefWidth(80);
+            barraEspera.setStyle("-fx-padding: 2;");
+            contenido.getChildren().addAll(etiqueta, barraEspera);
+            HBox.setHgrow(barraEspera, Priority.ALWAYS);
+        }
+
+        @Override
+        protected void updateItem(Cliente item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(null);
+            estadoMostrado = null;
+            if (empty || item == null) {
+                setGraphic(null);
+            } else {
+                actualizar(System.currentTimeMillis());
+                setGraphic(contenido);
             }
-            if (labelPedidos != null) {
-                labelPedidos.setText("Pedidos: " + actual + "/" + maximo);
+        }
+
+        void actualizar(long ahoraMs) {
+            Cliente cliente = getItem();
+            if (cliente == null || isEmpty()) {
+                return;
+            }
+            EstadoCliente estado = cliente.getEstado();
+            // El texto solo se compone cuando el estado cambia
+            if (estado != estadoMostrado) {
+                estadoMostrado = estado;
+                etiqueta.setText(cliente.getNombre() + " - " + estado.getTexto());
+            }
+            double progreso = cliente.progresoPaciencia(ahoraMs);
+            if (Math.abs(progreso - barraEspera.getProgress()) >= PASO_PROGRESO || (progreso == 0) != (barraEspera.getProgress() == 0)) {
+                barraEspera.setProgress(progreso);
             }
-        } else {
-            Platform.runLater(new Runnable() {
-                @Override
-                public void run() {
-                    if (barraPedidos != null) {
-                        double progreso = (double) actual / maximo;
-                        barraPedidos.setProgress(Math.min(progreso, 1.0));
-                    }
-                    if (labelPedidos != null) {
-                        labelPedidos.setText("Pedidos: " + actual + "/" + maximo);
-                    }
-                }
-            });
         }
     }
 
+    /**
+     * Entrada (entra = true) o salida de un cliente, tal como llega desde los hilos de los actores.
+     */
+    private record CambioCliente(Cliente cliente, boolean entra) {
+    }
+
     /**
      * Método llamado al finalizar la simulación para actualizar el estado de los botones.
      */
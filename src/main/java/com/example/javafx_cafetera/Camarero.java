@@ -2,79 +2,58 @@ package com.example.javafx_cafetera;
 
 /**
  * Clase que representa a un camarero en la simulación de la cafetería.
- * Hereda directamente de Thread para ejecutar la lógica de forma concurrente.
- * Gestiona el ciclo de atención de clientes.
+ * Es un Runnable que la cafetería lanza en un hilo de plataforma o virtual según el modo de ejecución.
+ * Gestiona el ciclo de atención de clientes; con personal flexible también ayuda a preparar pedidos.
  */
-public class Camarero extends Thread {
-    private final String nombre;
-    private final Cafeteria cafeteria;
-    private volatile String estado = "Disponible";
+public class Camarero extends Empleado {
 
     /**
      * Constructor del camarero.
+     * @param id Número del camarero (se usa en el diario de eventos).
      * @param nombre El nombre del camarero.
      * @param cafeteria La instancia de la cafetería a la que pertenece.
      */
-    public Camarero(String nombre, Cafeteria cafeteria) {
-        this.nombre = nombre;
-        this.cafeteria = cafeteria;
-        setDaemon(false);
+    public Camarero(int id, String nombre, Cafeteria cafeteria) {
+        super(id, nombre, cafeteria);
     }
 
-    /**
-     * Obtiene el nombre del camarero.
-     */
-    public String getNombre() {
-        return nombre;
+    @Override
+    protected boolean trabajarEnPuestoPropio(long esperaMs) throws InterruptedException {
+        return atenderSiguienteCliente(esperaMs);
     }
 
-    /**
-     * Obtiene el estado actual del camarero.
-     */
-    public String getEstado() {
-        return estado;
+    @Override
+    protected boolean robarTrabajo() throws InterruptedException {
+        return prepararSiguienteLote(0);
     }
 
-    /**
-     * Método ejecutado en el hilo del camarero.
-     * Gestiona el ciclo de atención de clientes de forma continua.
-     */
     @Override
-    public void run() {
-        cafeteria.registrar(nombre + " ha empezado a trabajar.");
-
-        while (cafeteria.estaEnEjecucion() && !Thread.currentThread().isInterrupted()) {
-            try {
-                Cliente cliente = cafeteria.obtenerClienteDesCola(500);
-
-                if (cliente != null) {
-                    // Tomar pedido al cliente
-                    estado = "Tomando pedido a " + cliente.getNombre();
-                    cafeteria.registrar(nombre + " está tomando el pedido de " + cliente.getNombre() + ".");
+    protected int pendientesPropios() {
+        return cafeteria.getTamañoCola();
+    }
 
-                    // Simular tiempo de toma de pedido
-                    Thread.sleep(1000);
+    @Override
+    protected int pendientesAjenos() {
+        return cafeteria.getTamañoColaPedidos();
+    }
 
-                    // Crear objeto Pedido y añadirlo a la cola de pedidos pendientes
-                    Pedido pedido = new Pedido(cliente, "Café Simple");
-                    cafeteria.encolarPedido(pedido);
+    @Override
+    protected String mensajeInicio() {
+        return " ha empezado a trabajar.";
+    }
 
-                    // Cambiar estado del cliente a "Esperando café"
-                    cliente.marcarPedidoTomado();
+    @Override
+    protected String mensajeFin() {
+        return " ha dejado de trabajar.";
+    }
 
-                    estado = "Esperando café";
-                    cafeteria.registrar(nombre + " ha puesto el pedido de " + cliente.getNombre() + " en la cola de preparación.");
-                } else {
-                    // No hay cliente en este momento, seguimos esperando
-                    estado = "Esperando";
-                    Thread.sleep(200);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
+    @Override
+    protected String textoSinTrabajo() {
+        return "Esperando";
+    }
 
-        cafeteria.registrar(nombre + " ha dejado de trabajar.");
+    @Override
+    protected ContadoresEstado<EstadoEmpleado> contadoresEstado() {
+        return cafeteria.getContadoresCamareros();
     }
-}
\ No newline at end of file
+}
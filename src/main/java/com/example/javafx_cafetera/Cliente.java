@@ -1,34 +1,75 @@
 package com.example.javafx_cafetera;
 
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Clase que representa a un cliente en la simulación de la cafetería.
- * Hereda directamente de Thread para ejecutar la lógica de forma concurrente.
+ * Es un Runnable que la cafetería lanza en un hilo de plataforma o virtual según el modo de ejecución.
  * Simula la llegada, espera (con paciencia limitada) y reacción tras ser atendido.
  */
-public class Cliente extends Thread {
+public class Cliente implements Runnable {
+    private final int id;
     private final String nombre;
     private final Cafeteria cafeteria;
-    private volatile String estado = "Pendiente";
+    // Flujo aleatorio propio (retardo de llegada), derivado de la semilla del escenario
+    private final SplittableRandom aleatorio;
+    // Lo cambian el propio cliente y el camarero que le toma el pedido, siempre con pasarA
+    private final AtomicReference<EstadoCliente> estado = new AtomicReference<>(EstadoCliente.PENDIENTE);
 
-    // Paciencia en milisegundos (entre 5s y 15s)
+    // Paciencia en milisegundos de simulación (entre 5s y 15s) y su equivalente en tiempo real
+    private final long pacienciaSimuladaMs;
     private final long pacienciaMs;
 
-    // Indicador de si fue servido
-    private boolean servido = false;
+    // Espera del intento actual; la completan el barista, el camarero (cola llena) o el timeout de paciencia
+    private volatile CompletableFuture<DesenlacePedido> espera = new CompletableFuture<>();
 
     // Tiempo de inicio de la espera para calcular paciencia restante
     private volatile long tiempoInicioEspera = -1;
 
+    // Instante (System.nanoTime) en que entró en la cola, para medir la espera
+    private long instanteEnColaNs;
+
+    // Bebida pedida; se fija antes de pasar a "Esperando café" (la usa el punto de control)
+    private volatile Bebida bebida;
+
+    // Sin el retardo de llegada: el cliente entra ya en la cola (pedidos que llegan por HTTP)
+    private volatile boolean llegadaInmediata = false;
+
+    // Estado final (Atendido, Rechazado, Se fue o Interrumpido), para quien espere desde fuera al cliente
+    private final CompletableFuture<EstadoCliente> desenlaceFinal = new CompletableFuture<>();
+
     /**
      * Constructor del cliente.
      * @param nombre El nombre del cliente.
      * @param cafeteria La instancia de la cafetería a la que pertenece.
      */
     public Cliente(String nombre, Cafeteria cafeteria) {
+        this(nombre, cafeteria, -1);
+    }
+
+    /**
+     * Constructor con una paciencia dada (al reanudar desde un punto de control).
+     * @param pacienciaSimuladaMs Paciencia total en ms de simulación; si es negativa se sortea como en un cliente nuevo.
+     */
+    Cliente(String nombre, Cafeteria cafeteria, long pacienciaSimuladaMs) {
+        this.id = cafeteria.siguienteIdCliente();
         this.nombre = nombre;
         this.cafeteria = cafeteria;
-        this.pacienciaMs = 5000 + (long) (Math.random() * 10000); // 5s - 15s
-        setDaemon(false);
+        this.aleatorio = cafeteria.nuevoFlujoAleatorio();
+        // 5s - 15s de simulación, que la escala de tiempo actual pasa a tiempo real
+        this.pacienciaSimuladaMs = pacienciaSimuladaMs >= 0 ? pacienciaSimuladaMs : 5000 + aleatorio.nextLong(10000);
+        this.pacienciaMs = cafeteria.escalarMs(this.pacienciaSimuladaMs);
+    }
+
+    /**
+     * Obtiene el identificador numérico del cliente (único dentro de la simulación).
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -41,17 +82,41 @@ public class Cliente extends Thread {
     /**
      * Obtiene el estado actual del cliente.
      */
-    public String getEstado() {
-        return estado;
+    public EstadoCliente getEstado() {
+        return estado.get();
+    }
+
+    /**
+     * Cambia de estado si la transición es válida desde el estado actual y actualiza los
+     * contadores por estado de la cafetería.
+     * @return false si la transición no es válida (otro hilo ya llevó al cliente a un desenlace).
+     */
+    boolean pasarA(EstadoCliente nuevo) {
+        EstadoCliente actual;
+        do {
+            actual = estado.get();
+            if (!actual.puedePasarA(nuevo)) {
+                return false;
+            }
+        } while (!estado.compareAndSet(actual, nuevo));
+        cafeteria.transicionCliente(actual, nuevo);
+        return true;
     }
 
     /**
-     * Obtiene la paciencia total del cliente en milisegundos.
+     * Obtiene la paciencia total del cliente en milisegundos (tiempo real).
      */
     public long getPacienciaMs() {
         return pacienciaMs;
     }
 
+    /**
+     * Obtiene la paciencia total del cliente en milisegundos de simulación (la que se guarda en un punto de control).
+     */
+    public long getPacienciaSimuladaMs() {
+        return pacienciaSimuladaMs;
+    }
+
     /**
      * Obtiene el tiempo de inicio de la espera (usado para calcular la paciencia restante).
      */
@@ -60,70 +125,154 @@ public class Cliente extends Thread {
     }
 
     /**
-     * Marca que el pedido fue tomado por el camarero y cambia el estado a "Esperando café".
+     * Fracción de la paciencia ya consumida en el instante indicado (0 si aún no espera o ya terminó).
+     * Sin reservar memoria, para que la interfaz pueda llamarlo en cada fotograma.
+     */
+    public double progresoPaciencia(long ahoraMs) {
+        long inicio = tiempoInicioEspera;
+        if (inicio <= 0 || espera.isDone()) {
+            return 0;
+        }
+        return Math.min(1.0, (double) (ahoraMs - inicio) / pacienciaMs);
+    }
+
+    long getInstanteEnColaNs() {
+        return instanteEnColaNs;
+    }
+
+    void setInstanteEnColaNs(long instanteEnColaNs) {
+        this.instanteEnColaNs = instanteEnColaNs;
+    }
+
+    /**
+     * Future del intento actual; el camarero lo pasa al Pedido que crea.
+     */
+    CompletableFuture<DesenlacePedido> getEspera() {
+        return espera;
+    }
+
+    /**
+     * Indica si el cliente ya no espera (se quedó sin paciencia o su intento terminó).
+     * Es O(1): los empleados lo consultan antes de trabajar para él.
+     */
+    public boolean seHaIdo() {
+        return espera.isDone();
+    }
+
+    Bebida getBebida() {
+        return bebida;
+    }
+
+    void setLlegadaInmediata(boolean llegadaInmediata) {
+        this.llegadaInmediata = llegadaInmediata;
+    }
+
+    /**
+     * Se completa con el estado final del cliente en cuanto conoce su desenlace (antes de marcharse).
+     */
+    CompletableFuture<EstadoCliente> getDesenlaceFinal() {
+        return desenlaceFinal;
+    }
+
+    /**
+     * Marca que el pedido fue tomado por el camarero y pasa el cliente a "Esperando café".
+     * No hace nada si entretanto el cliente ya tuvo su desenlace (se cansó o ya tiene el café).
+     */
+    public void marcarPedidoTomado(Bebida bebida) {
+        this.bebida = bebida;
+        pasarA(EstadoCliente.ESPERANDO_CAFE);
+    }
+
+    /**
+     * Deja al cliente como estaba al capturar el punto de control: ya en cola (o con el pedido
+     * tomado si {@code bebida} no es null) y con {@code esperadoSimuladoMs} (ms de simulación) de
+     * paciencia consumida. La cafetería lo llama antes de lanzarlo y se encarga de ponerlo en la cola que toca.
      */
-    public void marcarPedidoTomado() {
-        synchronized (this) {
-            estado = "Esperando café";
+    void restaurarEspera(long esperadoSimuladoMs, Bebida bebida) {
+        pasarA(EstadoCliente.LLEGO);
+        pasarA(EstadoCliente.EN_COLA);
+        tiempoInicioEspera = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(cafeteria.escalarNs(esperadoSimuladoMs));
+        if (bebida != null) {
+            marcarPedidoTomado(bebida);
         }
     }
 
     /**
      * Método ejecutado en el hilo del cliente.
-     * Simula la llegada, espera con paciencia limitada y reacción según
-     * haya sido notificado por el camarero o se haya agotado la paciencia.
+     * Simula la llegada, espera con paciencia limitada y reacción según el desenlace
+     * de su pedido o el agotamiento de la paciencia.
      */
     @Override
     public void run() {
         try {
-            // Llegada con cierto retardo aleatorio
-            long retardoLlegada = 200 + (int) (Math.random() * 1500);
-            Thread.sleep(retardoLlegada);
-
-            estado = "Llegó";
-            cafeteria.registrar(nombre + " ha llegado.");
-
-            estado = "En cola";
-            cafeteria.encolarCliente(this);
-
-            // Esperar a ser atendido usando wait/notify con timeout de paciencia
-            tiempoInicioEspera = System.currentTimeMillis();
-            long inicio = tiempoInicioEspera;
-            long restante = pacienciaMs;
-            synchronized (this) {
-                while (!servido && restante > 0) {
-                    wait(restante);
-                    long ahora = System.currentTimeMillis();
-                    restante = pacienciaMs - (ahora - inicio);
+            // Un cliente restaurado de un punto de control ya está en su cola
+            if (tiempoInicioEspera < 0) {
+                // Llegada con cierto retardo aleatorio
+                if (!llegadaInmediata) {
+                    long retardoLlegada = 200 + aleatorio.nextLong(1500);
+                    cafeteria.dormir(retardoLlegada);
                 }
+
+                pasarA(EstadoCliente.LLEGO);
+                cafeteria.notificarEvento(TipoEvento.LLEGADA, this, 0);
+                cafeteria.registrar(nombre + " ha llegado.");
+
+                pasarA(EstadoCliente.EN_COLA);
+                cafeteria.encolarCliente(this);
+                tiempoInicioEspera = System.currentTimeMillis();
             }
 
-            if (servido) {
-                estado = "Atendido";
-                cafeteria.registrar(nombre + " se fue con su café.");
-            } else {
-                estado = "Se fue sin café";
-                cafeteria.registrar(nombre + " se fue sin su café (paciencia agotada).");
+            // Esperar a ser atendido: la paciencia es un completeOnTimeout sobre el future del pedido
+            long limite = tiempoInicioEspera + pacienciaMs;
+            DesenlacePedido desenlace = esperarDesenlace(limite);
+            while (desenlace == DesenlacePedido.REINTENTAR && System.currentTimeMillis() < limite) {
+                // La cola de pedidos estaba llena: vuelve al final de la cola sin reiniciar su paciencia
+                espera = new CompletableFuture<>();
+                pasarA(EstadoCliente.EN_COLA_REINTENTO);
+                cafeteria.reencolarCliente(this);
+                desenlace = esperarDesenlace(limite);
             }
 
+            switch (desenlace) {
+                case SERVIDO -> {
+                    pasarA(EstadoCliente.ATENDIDO);
+                    cafeteria.notificarClienteSeFue(this, true);
+                }
+                case RECHAZADO -> {
+                    pasarA(EstadoCliente.RECHAZADO);
+                    cafeteria.notificarClienteRechazado(this);
+                }
+                default -> {
+                    pasarA(EstadoCliente.SE_FUE);
+                    cafeteria.notificarClienteSeFue(this, false);
+                }
+            }
+
+            desenlaceFinal.complete(getEstado());
+
             // Simular que el cliente se marcha luego de un breve tiempo
-            Thread.sleep(300);
+            cafeteria.dormir(300);
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            estado = "Interrumpido";
+            pasarA(EstadoCliente.INTERRUMPIDO);
             cafeteria.registrar(nombre + " fue interrumpido.");
+        } finally {
+            desenlaceFinal.complete(getEstado());
+            cafeteria.salidaCliente(this);
         }
     }
 
     /**
-     * Notifica al cliente que ha sido atendido por el camarero.
-     * Utiliza notify() dentro de un bloque sincronizado para despertar al cliente.
+     * Bloquea hasta que se complete el future del intento actual o llegue el límite de paciencia.
      */
-    public void notificarAtendido() {
-        synchronized (this) {
-            servido = true;
-            notify();
+    private DesenlacePedido esperarDesenlace(long limiteMs) throws InterruptedException {
+        long restante = Math.max(0, limiteMs - System.currentTimeMillis());
+        try {
+            return espera.completeOnTimeout(DesenlacePedido.SIN_PACIENCIA, restante, TimeUnit.MILLISECONDS).get();
+        } catch (ExecutionException e) {
+            // Nadie completa el future con una excepción
+            throw new IllegalStateException(e.getCause());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,271 @@
+package com.example.javafx_cafetera;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Cola acotada de varios productores y varios consumidores sobre un búfer circular,
+ * al estilo del disruptor: cada celda lleva un número de secuencia y productores y
+ * consumidores reservan posiciones con CAS, sin cerrojos.
+ * Las operaciones bloqueantes esperan girando, luego cediendo el procesador y por último
+ * aparcando el hilo unos microsegundos, en lugar de usar condiciones.
+ * <p>
+ * Solo se sale por la cabeza: {@code remove(Object)}, {@code removeAll}, {@code retainAll},
+ * {@code removeIf} y el {@code remove()} del iterador lanzan UnsupportedOperationException,
+ * porque sacar un elemento del medio dejaría un hueco que los consumidores no saben saltar.
+ * @param <E> Tipo de los elementos.
+ */
+public class ColaAnillo<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private static final int GIROS = 100;
+    private static final int CESIONES = 200;
+    private static final long ESPERA_APARCADO_NS = 50_000;
+
+    private final Object[] celdas;
+    private final AtomicLongArray secuencias;
+    private final int mascara;
+    private final AtomicLong posEscritura = new AtomicLong();
+    private final AtomicLong posLectura = new AtomicLong();
+
+    /**
+     * Crea la cola. La capacidad se redondea a la siguiente potencia de dos.
+     */
+    public ColaAnillo(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        int tamano = capacidad == 1 ? 1 : Integer.highestOneBit(capacidad - 1) << 1;
+        celdas = new Object[tamano];
+        secuencias = new AtomicLongArray(tamano);
+        mascara = tamano - 1;
+        for (int i = 0; i < tamano; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        while (true) {
+            long pos = posEscritura.get();
+            int indice = (int) (pos & mascara);
+            long diferencia = secuencias.get(indice) - pos;
+            if (diferencia == 0) {
+                if (posEscritura.compareAndSet(pos, pos + 1)) {
+                    celdas[indice] = e;
+                    secuencias.lazySet(indice, pos + 1);
+                    return true;
+                }
+            } else if (diferencia < 0) {
+                // La celda aún no ha sido consumida: la cola está llena
+                return false;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long pos = posLectura.get();
+            int indice = (int) (pos & mascara);
+            long diferencia = secuencias.get(indice) - (pos + 1);
+            if (diferencia == 0) {
+                if (posLectura.compareAndSet(pos, pos + 1)) {
+                    E e = (E) celdas[indice];
+                    celdas[indice] = null;
+                    secuencias.lazySet(indice, pos + mascara + 1);
+                    return e;
+                }
+            } else if (diferencia < 0) {
+                // La celda aún no ha sido escrita: la cola está vacía
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public E peek() {
+        while (true) {
+            long pos = posLectura.get();
+            long diferencia = secuencias.get((int) (pos & mascara)) - (pos + 1);
+            if (diferencia < 0) {
+                return null;
+            }
+            if (diferencia == 0) {
+                E e = leer(pos);
+                if (e != null) {
+                    return e;
+                }
+            }
+            // Otro consumidor se la ha llevado entre tanto: se mira la nueva cabeza
+        }
+    }
+
+    /**
+     * Elemento escrito en la posición indicada, o null si aún no está escrito o ya se consumió
+     * (o la celda se ha reutilizado para otra vuelta del anillo). Se comprueba la secuencia antes
+     * y después de leer la celda.
+     */
+    @SuppressWarnings("unchecked")
+    private E leer(long pos) {
+        int indice = (int) (pos & mascara);
+        if (secuencias.get(indice) != pos + 1) {
+            return null;
+        }
+        E e = (E) celdas[indice];
+        return secuencias.get(indice) == pos + 1 ? e : null;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        for (int intento = 0; !offer(e); intento++) {
+            esperar(intento);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long tiempo, TimeUnit unidad) throws InterruptedException {
+        long limite = System.nanoTime() + unidad.toNanos(tiempo);
+        for (int intento = 0; !offer(e); intento++) {
+            if (System.nanoTime() - limite >= 0) {
+                return false;
+            }
+            esperar(intento);
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        for (int intento = 0; (e = poll()) == null; intento++) {
+            esperar(intento);
+        }
+        return e;
+    }
+
+    @Override
+    public E poll(long tiempo, TimeUnit unidad) throws InterruptedException {
+        long limite = System.nanoTime() + unidad.toNanos(tiempo);
+        E e;
+        for (int intento = 0; (e = poll()) == null; intento++) {
+            if (System.nanoTime() - limite >= 0) {
+                return null;
+            }
+            esperar(intento);
+        }
+        return e;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return celdas.length - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> destino) {
+        return drainTo(destino, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> destino, int maximo) {
+        if (destino == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        E e;
+        while (n < maximo && (e = poll()) != null) {
+            destino.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public int size() {
+        long tamano = posEscritura.get() - posLectura.get();
+        return (int) Math.max(0, Math.min(tamano, celdas.length));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("ColaAnillo solo admite sacar elementos por la cabeza");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException("ColaAnillo solo admite sacar elementos por la cabeza");
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("ColaAnillo solo admite sacar elementos por la cabeza");
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filtro) {
+        throw new UnsupportedOperationException("ColaAnillo solo admite sacar elementos por la cabeza");
+    }
+
+    /**
+     * Iterador débilmente consistente sobre una copia de los elementos presentes, en orden de
+     * llegada; no admite remove(). Se salta las celdas reservadas que aún no se han escrito y las
+     * que se consumen mientras se copia.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        long desde = posLectura.get();
+        long hasta = posEscritura.get();
+        Object[] copia = new Object[(int) Math.max(0, Math.min(hasta - desde, celdas.length))];
+        int n = 0;
+        for (long pos = desde; pos < hasta && n < copia.length; pos++) {
+            E e = leer(pos);
+            if (e != null) {
+                copia[n++] = e;
+            }
+        }
+        int total = n;
+        return new Iterator<E>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < total;
+            }
+
+            @Override
+            public E next() {
+                if (i >= total) {
+                    throw new NoSuchElementException();
+                }
+                return (E) copia[i++];
+            }
+        };
+    }
+
+    /**
+     * Estrategia de espera: girar, ceder el procesador y finalmente aparcar brevemente.
+     */
+    private static void esperar(int intento) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (intento < GIROS) {
+            Thread.onSpinWait();
+        } else if (intento < CESIONES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(ESPERA_APARCADO_NS);
+        }
+    }
+}
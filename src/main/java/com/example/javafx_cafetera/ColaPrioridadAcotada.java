@@ -0,0 +1,240 @@
+package com.example.javafx_cafetera;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * BlockingQueue de prioridad con capacidad máxima.
+ * PriorityBlockingQueue no tiene límite, y la cola de pedidos necesita uno para que
+ * las políticas de desbordamiento sigan funcionando. Es un PriorityQueue protegido por
+ * un único cerrojo con dos condiciones (hay elementos / hay hueco), como ArrayBlockingQueue.
+ */
+public class ColaPrioridadAcotada<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private final PriorityQueue<E> elementos;
+    private final int capacidad;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition noVacia = cerrojo.newCondition();
+    private final Condition noLlena = cerrojo.newCondition();
+
+    public ColaPrioridadAcotada(int capacidad, Comparator<? super E> orden) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("Capacidad no válida: " + capacidad);
+        }
+        this.capacidad = capacidad;
+        this.elementos = new PriorityQueue<>(Math.min(capacidad, 64), orden);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        cerrojo.lock();
+        try {
+            if (elementos.size() >= capacidad) {
+                return false;
+            }
+            insertar(e);
+            return true;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        Objects.requireNonNull(e);
+        cerrojo.lockInterruptibly();
+        try {
+            while (elementos.size() >= capacidad) {
+                noLlena.await();
+            }
+            insertar(e);
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long tiempo, TimeUnit unidad) throws InterruptedException {
+        Objects.requireNonNull(e);
+        long restante = unidad.toNanos(tiempo);
+        cerrojo.lockInterruptibly();
+        try {
+            while (elementos.size() >= capacidad) {
+                if (restante <= 0) {
+                    return false;
+                }
+                restante = noLlena.awaitNanos(restante);
+            }
+            insertar(e);
+            return true;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        cerrojo.lock();
+        try {
+            return extraer();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        cerrojo.lockInterruptibly();
+        try {
+            while (elementos.isEmpty()) {
+                noVacia.await();
+            }
+            return extraer();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long tiempo, TimeUnit unidad) throws InterruptedException {
+        long restante = unidad.toNanos(tiempo);
+        cerrojo.lockInterruptibly();
+        try {
+            while (elementos.isEmpty()) {
+                if (restante <= 0) {
+                    return null;
+                }
+                restante = noVacia.awaitNanos(restante);
+            }
+            return extraer();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public E peek() {
+        cerrojo.lock();
+        try {
+            return elementos.peek();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        cerrojo.lock();
+        try {
+            return elementos.size();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        cerrojo.lock();
+        try {
+            return capacidad - elementos.size();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> destino) {
+        return drainTo(destino, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Saca hasta {@code maximo} elementos en orden de prioridad con una sola toma del cerrojo.
+     */
+    @Override
+    public int drainTo(Collection<? super E> destino, int maximo) {
+        Objects.requireNonNull(destino);
+        if (destino == this) {
+            throw new IllegalArgumentException();
+        }
+        cerrojo.lock();
+        try {
+            int n = 0;
+            while (n < maximo && !elementos.isEmpty()) {
+                destino.add(elementos.poll());
+                n++;
+            }
+            if (n > 0) {
+                noLlena.signalAll();
+            }
+            return n;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        cerrojo.lock();
+        try {
+            boolean quitado = elementos.remove(o);
+            if (quitado) {
+                noLlena.signal();
+            }
+            return quitado;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        cerrojo.lock();
+        try {
+            elementos.clear();
+            noLlena.signalAll();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Iterador sobre una copia en orden de prioridad (así un barista puede elegir pedidos
+     * sin saltarse el turno del planificador).
+     * Su remove() no afecta a la cola; para quitar un elemento se usa {@link #remove(Object)}.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        List<E> copia;
+        cerrojo.lock();
+        try {
+            copia = new ArrayList<>(elementos);
+        } finally {
+            cerrojo.unlock();
+        }
+        copia.sort(elementos.comparator());
+        return copia.iterator();
+    }
+
+    private void insertar(E e) {
+        elementos.add(e);
+        noVacia.signal();
+    }
+
+    private E extraer() {
+        E e = elementos.poll();
+        if (e != null) {
+            noLlena.signal();
+        }
+        return e;
+    }
+}
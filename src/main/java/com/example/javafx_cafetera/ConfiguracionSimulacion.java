@@ -0,0 +1,297 @@
+package com.example.javafx_cafetera;
+
+import java.util.SplittableRandom;
+
+/**
+ * Parámetros de un escenario de simulación.
+ * Los valores por defecto reproducen la simulación original (5 camareros, 3 baristas, 10 clientes).
+ */
+public class ConfiguracionSimulacion {
+    private ModoEjecucion modo = ModoEjecucion.porDefecto();
+    private int numCamareros = 5;
+    private int numBaristas = 3;
+    private int numClientes = 10;
+    // Desfase entre la llegada de los clientes iniciales
+    private long desfaseLlegadaMs = 200;
+    // Capacidad de la cola de pedidos pendientes y qué hacer cuando se llena
+    private int capacidadPedidos = 10;
+    private PoliticaDesbordamiento politicaDesbordamiento = PoliticaDesbordamiento.BLOQUEAR;
+    // Pedidos compatibles que un barista prepara a la vez (1 = sin lotes)
+    private int tamanoLote = 1;
+    // Carta completa (si no, todo son Cafés Simples) y orden en que los baristas sacan los pedidos
+    private boolean menuVariado = false;
+    private PlanificadorPedidos planificador = PlanificadorPedidos.FIFO;
+    // Si camareros y baristas pueden ayudar en la otra etapa cuando la suya está vacía
+    private boolean personalFlexible = false;
+    // Autoescalado: límites de plantilla, espera objetivo y cada cuánto se decide
+    private boolean autoescalado = false;
+    private int minCamareros = 1;
+    private int maxCamareros = 10;
+    private int minBaristas = 1;
+    private int maxBaristas = 6;
+    private long objetivoEsperaMs = 3000;
+    private long intervaloAutoescaladoMs = 1000;
+    // Sucursales independientes (cada una con sus colas y su plantilla) y cómo se reparten los clientes
+    private int numSucursales = 1;
+    private EnrutadorClientes enrutador = EnrutadorClientes.ROUND_ROBIN;
+    // Llegadas: la tanda cerrada de numClientes o un proceso abierto a tasaLlegadas clientes/s
+    // (0 = sin indicar: con una traza la reproduce a su ritmo original)
+    private ProcesoLlegadas procesoLlegadas = ProcesoLlegadas.CERRADO;
+    private double tasaLlegadas = 0;
+    private long[] trazaLlegadasMs = null;
+    // Factor aplicado a todos los tiempos de la simulación con hilos (0.001 = un segundo dura un milisegundo)
+    private double escalaTiempo = 1.0;
+    // Semilla del escenario: con la misma semilla cada actor recibe el mismo flujo aleatorio (null = al azar)
+    private Long semilla = null;
+
+    public ConfiguracionSimulacion() {
+    }
+
+    /**
+     * Constructor de copia, para derivar la configuración de cada sucursal.
+     */
+    public ConfiguracionSimulacion(ConfiguracionSimulacion otra) {
+        this.modo = otra.modo;
+        this.numCamareros = otra.numCamareros;
+        this.numBaristas = otra.numBaristas;
+        this.numClientes = otra.numClientes;
+        this.desfaseLlegadaMs = otra.desfaseLlegadaMs;
+        this.capacidadPedidos = otra.capacidadPedidos;
+        this.politicaDesbordamiento = otra.politicaDesbordamiento;
+        this.tamanoLote = otra.tamanoLote;
+        this.menuVariado = otra.menuVariado;
+        this.planificador = otra.planificador;
+        this.personalFlexible = otra.personalFlexible;
+        this.autoescalado = otra.autoescalado;
+        this.minCamareros = otra.minCamareros;
+        this.maxCamareros = otra.maxCamareros;
+        this.minBaristas = otra.minBaristas;
+        this.maxBaristas = otra.maxBaristas;
+        this.objetivoEsperaMs = otra.objetivoEsperaMs;
+        this.intervaloAutoescaladoMs = otra.intervaloAutoescaladoMs;
+        this.numSucursales = otra.numSucursales;
+        this.enrutador = otra.enrutador;
+        this.procesoLlegadas = otra.procesoLlegadas;
+        this.tasaLlegadas = otra.tasaLlegadas;
+        this.trazaLlegadasMs = otra.trazaLlegadasMs;
+        this.escalaTiempo = otra.escalaTiempo;
+        this.semilla = otra.semilla;
+    }
+
+    public ModoEjecucion getModo() {
+        return modo;
+    }
+
+    public void setModo(ModoEjecucion modo) {
+        this.modo = modo;
+    }
+
+    public int getNumCamareros() {
+        return numCamareros;
+    }
+
+    public void setNumCamareros(int numCamareros) {
+        this.numCamareros = numCamareros;
+    }
+
+    public int getNumBaristas() {
+        return numBaristas;
+    }
+
+    public void setNumBaristas(int numBaristas) {
+        this.numBaristas = numBaristas;
+    }
+
+    public int getNumClientes() {
+        return numClientes;
+    }
+
+    public void setNumClientes(int numClientes) {
+        this.numClientes = numClientes;
+    }
+
+    public long getDesfaseLlegadaMs() {
+        return desfaseLlegadaMs;
+    }
+
+    public void setDesfaseLlegadaMs(long desfaseLlegadaMs) {
+        this.desfaseLlegadaMs = desfaseLlegadaMs;
+    }
+
+    public int getCapacidadPedidos() {
+        return capacidadPedidos;
+    }
+
+    public void setCapacidadPedidos(int capacidadPedidos) {
+        if (capacidadPedidos <= 0) {
+            throw new IllegalArgumentException("La capacidad de la cola de pedidos debe ser positiva: " + capacidadPedidos);
+        }
+        this.capacidadPedidos = capacidadPedidos;
+    }
+
+    public PoliticaDesbordamiento getPoliticaDesbordamiento() {
+        return politicaDesbordamiento;
+    }
+
+    public void setPoliticaDesbordamiento(PoliticaDesbordamiento politicaDesbordamiento) {
+        this.politicaDesbordamiento = politicaDesbordamiento;
+    }
+
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+    }
+
+    public boolean isMenuVariado() {
+        return menuVariado;
+    }
+
+    public void setMenuVariado(boolean menuVariado) {
+        this.menuVariado = menuVariado;
+    }
+
+    public PlanificadorPedidos getPlanificador() {
+        return planificador;
+    }
+
+    public void setPlanificador(PlanificadorPedidos planificador) {
+        this.planificador = planificador;
+    }
+
+    public boolean isPersonalFlexible() {
+        return personalFlexible;
+    }
+
+    public void setPersonalFlexible(boolean personalFlexible) {
+        this.personalFlexible = personalFlexible;
+    }
+
+    public int getNumSucursales() {
+        return numSucursales;
+    }
+
+    public void setNumSucursales(int numSucursales) {
+        this.numSucursales = numSucursales;
+    }
+
+    public EnrutadorClientes getEnrutador() {
+        return enrutador;
+    }
+
+    public void setEnrutador(EnrutadorClientes enrutador) {
+        this.enrutador = enrutador;
+    }
+
+    public Long getSemilla() {
+        return semilla;
+    }
+
+    public void setSemilla(Long semilla) {
+        this.semilla = semilla;
+    }
+
+    /**
+     * Generador raíz del escenario: con semilla si la hay, y si no uno al azar.
+     * De él se sacan con split() los flujos independientes de cada actor.
+     */
+    public SplittableRandom crearAleatorio() {
+        return semilla != null ? new SplittableRandom(semilla) : new SplittableRandom();
+    }
+
+    public boolean isAutoescalado() {
+        return autoescalado;
+    }
+
+    public void setAutoescalado(boolean autoescalado) {
+        this.autoescalado = autoescalado;
+    }
+
+    public int getMinCamareros() {
+        return minCamareros;
+    }
+
+    public void setMinCamareros(int minCamareros) {
+        this.minCamareros = minCamareros;
+    }
+
+    public int getMaxCamareros() {
+        return maxCamareros;
+    }
+
+    public void setMaxCamareros(int maxCamareros) {
+        this.maxCamareros = maxCamareros;
+    }
+
+    public int getMinBaristas() {
+        return minBaristas;
+    }
+
+    public void setMinBaristas(int minBaristas) {
+        this.minBaristas = minBaristas;
+    }
+
+    public int getMaxBaristas() {
+        return maxBaristas;
+    }
+
+    public void setMaxBaristas(int maxBaristas) {
+        this.maxBaristas = maxBaristas;
+    }
+
+    public long getObjetivoEsperaMs() {
+        return objetivoEsperaMs;
+    }
+
+    public void setObjetivoEsperaMs(long objetivoEsperaMs) {
+        this.objetivoEsperaMs = objetivoEsperaMs;
+    }
+
+    public long getIntervaloAutoescaladoMs() {
+        return intervaloAutoescaladoMs;
+    }
+
+    public void setIntervaloAutoescaladoMs(long intervaloAutoescaladoMs) {
+        this.intervaloAutoescaladoMs = intervaloAutoescaladoMs;
+    }
+
+    public ProcesoLlegadas getProcesoLlegadas() {
+        return procesoLlegadas;
+    }
+
+    public void setProcesoLlegadas(ProcesoLlegadas procesoLlegadas) {
+        this.procesoLlegadas = procesoLlegadas;
+    }
+
+    public double getTasaLlegadas() {
+        return tasaLlegadas;
+    }
+
+    public void setTasaLlegadas(double tasaLlegadas) {
+        if (!(tasaLlegadas > 0) || Double.isInfinite(tasaLlegadas)) {
+            throw new IllegalArgumentException("La tasa de llegadas debe ser positiva: " + tasaLlegadas);
+        }
+        this.tasaLlegadas = tasaLlegadas;
+    }
+
+    public long[] getTrazaLlegadasMs() {
+        return trazaLlegadasMs;
+    }
+
+    public void setTrazaLlegadasMs(long[] trazaLlegadasMs) {
+        this.trazaLlegadasMs = trazaLlegadasMs;
+    }
+
+    public double getEscalaTiempo() {
+        return escalaTiempo;
+    }
+
+    public void setEscalaTiempo(double escalaTiempo) {
+        if (!(escalaTiempo > 0) || Double.isInfinite(escalaTiempo)) {
+            throw new IllegalArgumentException("La escala de tiempo debe ser positiva: " + escalaTiempo);
+        }
+        this.escalaTiempo = escalaTiempo;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.javafx_cafetera;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cuántos actores hay ahora mismo en cada estado de una máquina de estados.
+ * Un LongAdder por estado: cada transición resta en el origen y suma en el destino sin
+ * contención entre hilos, y consultar un estado no reserva memoria.
+ */
+public class ContadoresEstado<E extends Enum<E>> {
+    private final LongAdder[] contadores;
+
+    public ContadoresEstado(Class<E> tipo) {
+        contadores = new LongAdder[tipo.getEnumConstants().length];
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Un actor nuevo empieza en {@code estado}.
+     */
+    public void entrar(E estado) {
+        contadores[estado.ordinal()].increment();
+    }
+
+    /**
+     * Un actor deja de contar (sale de la simulación) estando en {@code estado}.
+     */
+    public void salir(E estado) {
+        contadores[estado.ordinal()].decrement();
+    }
+
+    public void transicion(E desde, E hasta) {
+        contadores[desde.ordinal()].decrement();
+        contadores[hasta.ordinal()].increment();
+    }
+
+    /**
+     * Actores que hay ahora en {@code estado}.
+     */
+    public long get(E estado) {
+        return contadores[estado.ordinal()].sum();
+    }
+
+    /**
+     * Pone todos los contadores a cero (al detener la simulación).
+     */
+    public void reiniciar() {
+        for (LongAdder contador : contadores) {
+            contador.reset();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Autoescalado de camareros y baristas.
+ * Cada intervalo mira, por etapa, cuántos clientes o pedidos esperan y la espera media reciente
+ * (la de quienes salieron de la cola desde la muestra anterior). Con histéresis añade o retira
+ * empleados dentro de los límites de la configuración: hace falta superar el objetivo varias
+ * muestras seguidas para contratar y estar holgado durante más muestras para retirar.
+ */
+public class ControladorPersonal implements Runnable {
+    // Muestras seguidas por encima del objetivo para contratar, y holgadas para retirar
+    private static final int MUESTRAS_SUBIDA = 2;
+    private static final int MUESTRAS_BAJADA = 5;
+    // Por encima de este número de pendientes por empleado se considera que la etapa va retrasada
+    private static final int PENDIENTES_POR_EMPLEADO_ALTO = 2;
+
+    private final Cafeteria cafeteria;
+    private final ConfiguracionSimulacion configuracion;
+    private final Etapa camareros;
+    private final Etapa baristas;
+
+    public ControladorPersonal(Cafeteria cafeteria, ConfiguracionSimulacion configuracion) {
+        this.cafeteria = cafeteria;
+        this.configuracion = configuracion;
+        this.camareros = new Etapa(cafeteria.getEstadisticas().getEsperaCola(),
+                configuracion.getMinCamareros(), configuracion.getMaxCamareros());
+        this.baristas = new Etapa(cafeteria.getEstadisticas().getEsperaPedido(),
+                configuracion.getMinBaristas(), configuracion.getMaxBaristas());
+    }
+
+    @Override
+    public void run() {
+        cafeteria.registrar("Autoescalado activo (objetivo de espera " + configuracion.getObjetivoEsperaMs() + " ms).");
+        while (cafeteria.estaEnEjecucion() && !Thread.currentThread().isInterrupted()) {
+            try {
+                cafeteria.dormir(configuracion.getIntervaloAutoescaladoMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            muestrear();
+        }
+    }
+
+    private void muestrear() {
+        int numCamareros = cafeteria.getNumCamareros();
+        int numBaristas = cafeteria.getNumBaristas();
+        cafeteria.getEstadisticas().registrarMuestraPersonal(numCamareros, numBaristas);
+
+        switch (camareros.evaluar(cafeteria.getTamañoCola(), numCamareros)) {
+            case 1 -> cafeteria.contratarCamarero();
+            case -1 -> cafeteria.retirarCamarero();
+            default -> { }
+        }
+        switch (baristas.evaluar(cafeteria.getTamañoColaPedidos(), numBaristas)) {
+            case 1 -> cafeteria.contratarBarista();
+            case -1 -> cafeteria.retirarBarista();
+            default -> { }
+        }
+    }
+
+    /**
+     * Estado de la histéresis de una etapa (camareros o baristas).
+     */
+    private class Etapa {
+        private final HistogramaLatencia espera;
+        private final int minimo;
+        private final int maximo;
+        private long sumaAnterior;
+        private long totalAnterior;
+        private int seguidasAltas;
+        private int seguidasBajas;
+
+        Etapa(HistogramaLatencia espera, int minimo, int maximo) {
+            this.espera = espera;
+            this.minimo = minimo;
+            this.maximo = maximo;
+        }
+
+        /**
+         * @return 1 para contratar, -1 para retirar, 0 para no cambiar.
+         */
+        int evaluar(int pendientes, int empleados) {
+            long suma = espera.getSuma();
+            long total = espera.getTotal();
+            if (total < totalAnterior || suma < sumaAnterior) {
+                // Alguien ha reiniciado el histograma (por JMX): lo registrado desde entonces es todo nuevo
+                sumaAnterior = 0;
+                totalAnterior = 0;
+            }
+            long salidas = total - totalAnterior;
+            double esperaMediaMs = salidas == 0 ? 0 : (suma - sumaAnterior) / (double) salidas / 1e6;
+            sumaAnterior = suma;
+            totalAnterior = total;
+
+            long objetivo = configuracion.getObjetivoEsperaMs();
+            boolean alta = esperaMediaMs > objetivo || pendientes > PENDIENTES_POR_EMPLEADO_ALTO * empleados;
+            boolean baja = esperaMediaMs < objetivo / 2.0 && pendientes < empleados;
+            seguidasAltas = alta ? seguidasAltas + 1 : 0;
+            seguidasBajas = baja ? seguidasBajas + 1 : 0;
+
+            if (seguidasAltas >= MUESTRAS_SUBIDA && empleados < maximo) {
+                seguidasAltas = 0;
+                return 1;
+            }
+            if (seguidasBajas >= MUESTRAS_BAJADA && empleados > minimo) {
+                seguidasBajas = 0;
+                return -1;
+            }
+            return 0;
+        }
+    }
+}
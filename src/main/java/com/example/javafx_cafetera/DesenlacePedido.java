@@ -0,0 +1,16 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Cómo termina la espera de un cliente por su pedido.
+ * Es el valor con el que se completa el CompletableFuture que comparten el cliente y su pedido.
+ */
+public enum DesenlacePedido {
+    /** El barista terminó el café. */
+    SERVIDO,
+    /** La cola de pedidos estaba llena y el pedido se descartó. */
+    RECHAZADO,
+    /** La cola de pedidos estaba llena y el cliente debe volver a la cola. */
+    REINTENTAR,
+    /** Se agotó la paciencia del cliente antes de recibir el café. */
+    SIN_PACIENCIA
+}
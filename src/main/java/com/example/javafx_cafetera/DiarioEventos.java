@@ -0,0 +1,132 @@
+package com.example.javafx_cafetera;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diario binario de eventos, de solo añadir, sobre un fichero mapeado en memoria.
+ * Se suscribe a la cafetería como un oyente más y guarda cada evento en un registro
+ * de tamaño fijo:
+ * <pre>
+ *   long instante (ns de simulación desde la apertura) | int tipo | int cliente | int empleado | int reservado
+ * </pre>
+ * Cada hilo reserva su posición con un único getAndIncrement y escribe directamente en el
+ * mapa, sin cerrojos ni copias. El fichero se mapea por segmentos a medida que crece.
+ * Un tipo 0 marca el final del diario (registros aún no escritos).
+ */
+public class DiarioEventos implements OyenteCafeteria, AutoCloseable {
+    static final int MAGICO = 0xCAFE_0001;
+    static final int VERSION = 2;
+    static final int TAMANO_CABECERA = 24;
+    static final int TAMANO_REGISTRO = 24;
+    static final int REGISTROS_POR_SEGMENTO = 1 << 20;
+    static final long TAMANO_SEGMENTO = (long) REGISTROS_POR_SEGMENTO * TAMANO_REGISTRO;
+    private static final int MAX_SEGMENTOS = 4096;
+
+    private final FileChannel canal;
+    private final AtomicReferenceArray<MappedByteBuffer> segmentos = new AtomicReferenceArray<>(MAX_SEGMENTOS);
+    private final AtomicLong siguienteRegistro = new AtomicLong();
+    private final LongAdder perdidos = new LongAdder();
+    private final long origenNs = System.nanoTime();
+    private final double escalaTiempo;
+
+    /**
+     * Crea (o sobrescribe) el diario en la ruta indicada.
+     * @param escalaTiempo Escala de la cafetería; los instantes se guardan en tiempo de simulación.
+     */
+    public DiarioEventos(Path ruta, double escalaTiempo) throws IOException {
+        this.escalaTiempo = escalaTiempo;
+        canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANO_CABECERA);
+        cabecera.order(ByteOrder.LITTLE_ENDIAN);
+        cabecera.putInt(0, MAGICO);
+        cabecera.putInt(4, VERSION);
+        cabecera.putInt(8, TAMANO_REGISTRO);
+        cabecera.putInt(12, REGISTROS_POR_SEGMENTO);
+        cabecera.putLong(16, System.currentTimeMillis());
+        cabecera.force();
+    }
+
+    @Override
+    public void alEvento(TipoEvento tipo, int idCliente, int idEmpleado) {
+        escribir(tipo, idCliente, idEmpleado, Math.round((System.nanoTime() - origenNs) / escalaTiempo));
+    }
+
+    /**
+     * Añade un registro al diario. Puede llamarse desde cualquier hilo.
+     */
+    public void escribir(TipoEvento tipo, int idCliente, int idEmpleado, long instanteNs) {
+        long n = siguienteRegistro.getAndIncrement();
+        int segmento = (int) (n / REGISTROS_POR_SEGMENTO);
+        if (segmento >= MAX_SEGMENTOS) {
+            perdidos.increment();
+            return;
+        }
+        MappedByteBuffer mapa = segmento(segmento);
+        int pos = (int) (n % REGISTROS_POR_SEGMENTO) * TAMANO_REGISTRO;
+        mapa.putLong(pos, instanteNs);
+        mapa.putInt(pos + 12, idCliente);
+        mapa.putInt(pos + 16, idEmpleado);
+        // El tipo se escribe el último: mientras sea 0 el lector considera el registro incompleto
+        mapa.putInt(pos + 8, tipo.codigo());
+    }
+
+    /**
+     * Registros escritos hasta ahora.
+     */
+    public long getRegistros() {
+        return Math.min(siguienteRegistro.get(), (long) MAX_SEGMENTOS * REGISTROS_POR_SEGMENTO);
+    }
+
+    /**
+     * Registros que no cupieron en el tamaño máximo del diario.
+     */
+    public long getPerdidos() {
+        return perdidos.sum();
+    }
+
+    private MappedByteBuffer segmento(int indice) {
+        MappedByteBuffer mapa = segmentos.get(indice);
+        if (mapa != null) {
+            return mapa;
+        }
+        synchronized (segmentos) {
+            mapa = segmentos.get(indice);
+            if (mapa == null) {
+                try {
+                    mapa = canal.map(FileChannel.MapMode.READ_WRITE,
+                            TAMANO_CABECERA + indice * TAMANO_SEGMENTO, TAMANO_SEGMENTO);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo ampliar el diario", e);
+                }
+                mapa.order(ByteOrder.LITTLE_ENDIAN);
+                segmentos.set(indice, mapa);
+            }
+            return mapa;
+        }
+    }
+
+    /**
+     * Vuelca a disco los segmentos mapeados y cierra el fichero.
+     */
+    @Override
+    public void close() throws IOException {
+        for (int i = 0; i < MAX_SEGMENTOS; i++) {
+            MappedByteBuffer mapa = segmentos.get(i);
+            if (mapa == null) {
+                break;
+            }
+            mapa.force();
+        }
+        canal.close();
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.javafx_cafetera;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base común de camareros y baristas.
+ * Contiene los dos oficios (atender a un cliente de la cola y preparar un lote de pedidos)
+ * para que, con el personal flexible activado, cada empleado pueda ayudar en la otra etapa:
+ * siempre prefiere su puesto propio y solo roba trabajo de la otra cola cuando la suya está vacía.
+ */
+public abstract class Empleado implements Runnable {
+    // Espera en la cola propia con personal flexible: corta, para volver a mirar la otra etapa pronto
+    private static final long ESPERA_FLEXIBLE_MS = 50;
+    // Con autoescalado la espera también es acotada, para notar a tiempo una petición de retiro
+    private static final long ESPERA_RETIRO_MS = 250;
+
+    protected final int id;
+    protected final String nombre;
+    protected final Cafeteria cafeteria;
+    // Flujo aleatorio propio (bebida pedida, tiempo de preparación), derivado de la semilla del escenario
+    private final SplittableRandom aleatorio;
+    // Solo lo cambia el hilo del propio empleado (con pasarA); la interfaz lo lee
+    private volatile EstadoEmpleado estado = EstadoEmpleado.DISPONIBLE;
+    // Datos de la tarea en curso, para componer el texto del estado solo cuando se muestra
+    private volatile Cliente clienteActual;
+    private volatile Bebida bebidaActual;
+    private volatile int tamanoLoteActual;
+    // Lo activa el autoescalado; se comprueba entre tareas, nunca a mitad de una
+    private volatile boolean retirado = false;
+
+    protected Empleado(int id, String nombre, Cafeteria cafeteria) {
+        this.id = id;
+        this.nombre = nombre;
+        this.cafeteria = cafeteria;
+        this.aleatorio = cafeteria.nuevoFlujoAleatorio();
+    }
+
+    /**
+     * Obtiene el nombre del empleado.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene el estado actual del empleado.
+     */
+    public EstadoEmpleado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Texto del estado para la interfaz. Se compone aquí, al mostrarlo, y no al cambiar de estado.
+     */
+    public String describirEstado() {
+        EstadoEmpleado actual = estado;
+        Cliente cliente = clienteActual;
+        return switch (actual) {
+            case SIN_TRABAJO -> textoSinTrabajo();
+            case TOMANDO_PEDIDO -> "Tomando pedido a " + cliente.getNombre();
+            case ENTREGANDO_PEDIDO -> "Entregando pedido de " + cliente.getNombre();
+            case PREPARANDO -> tamanoLoteActual == 1
+                    ? "Preparando café para " + cliente.getNombre()
+                    : "Preparando " + tamanoLoteActual + " x " + bebidaActual;
+            default -> actual.getTexto();
+        };
+    }
+
+    /**
+     * Cambia de estado y actualiza los contadores por estado de la cafetería.
+     * @throws IllegalStateException si la transición no es válida desde el estado actual.
+     */
+    private void pasarA(EstadoEmpleado nuevo) {
+        EstadoEmpleado actual = estado;
+        if (actual == nuevo) {
+            return;
+        }
+        if (!actual.puedePasarA(nuevo)) {
+            throw new IllegalStateException(nombre + ": transición no válida " + actual + " -> " + nuevo);
+        }
+        estado = nuevo;
+        contadoresEstado().transicion(actual, nuevo);
+    }
+
+    /**
+     * Pide al empleado que se retire cuando acabe la tarea en curso.
+     */
+    public void solicitarRetiro() {
+        retirado = true;
+    }
+
+    /**
+     * Trabajo del puesto propio, esperando como mucho {@code esperaMs} a que llegue.
+     * @return true si había trabajo y se hizo.
+     */
+    protected abstract boolean trabajarEnPuestoPropio(long esperaMs) throws InterruptedException;
+
+    /**
+     * Trabajo de la otra etapa, sin esperar.
+     * @return true si había trabajo y se hizo.
+     */
+    protected abstract boolean robarTrabajo() throws InterruptedException;
+
+    protected abstract int pendientesPropios();
+
+    protected abstract int pendientesAjenos();
+
+    protected abstract String mensajeInicio();
+
+    protected abstract String mensajeFin();
+
+    /**
+     * Texto del estado {@link EstadoEmpleado#SIN_TRABAJO}, que depende del puesto.
+     */
+    protected abstract String textoSinTrabajo();
+
+    /**
+     * Contadores por estado del puesto (camareros o baristas) en la cafetería.
+     */
+    protected abstract ContadoresEstado<EstadoEmpleado> contadoresEstado();
+
+    /**
+     * Método ejecutado en el hilo del empleado.
+     */
+    @Override
+    public void run() {
+        cafeteria.registrar(nombre + mensajeInicio());
+        contadoresEstado().entrar(estado);
+
+        while (cafeteria.estaEnEjecucion() && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (retirado) {
+                    break;
+                }
+                boolean trabajo = false;
+                boolean flexible = cafeteria.esPersonalFlexible();
+                if (flexible && hayQueRobar()) {
+                    trabajo = robarTrabajo();
+                    if (trabajo) {
+                        cafeteria.notificarRobo();
+                    }
+                }
+                if (!trabajo) {
+                    // Sin personal flexible se bloquea en su cola hasta que llegue trabajo, sin sondeos
+                    pasarA(EstadoEmpleado.SIN_TRABAJO);
+                    trabajarEnPuestoPropio(flexible ? ESPERA_FLEXIBLE_MS
+                            : cafeteria.esAutoescalado() ? ESPERA_RETIRO_MS : Cafeteria.ESPERA_INDEFINIDA);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        contadoresEstado().salir(estado);
+        cafeteria.registrar(nombre + (retirado ? " se ha retirado." : mensajeFin()));
+    }
+
+    private boolean hayQueRobar() {
+        return pendientesPropios() == 0 && pendientesAjenos() > 0;
+    }
+
+    /**
+     * Oficio de camarero: saca un cliente de la cola, le toma el pedido y lo manda a preparación.
+     * @return true si había un cliente.
+     */
+    protected boolean atenderSiguienteCliente(long esperaMs) throws InterruptedException {
+        Cliente cliente = cafeteria.obtenerClienteDesCola(esperaMs);
+        if (cliente == null) {
+            return false;
+        }
+
+        // Tomar pedido al cliente
+        clienteActual = cliente;
+        pasarA(EstadoEmpleado.TOMANDO_PEDIDO);
+        cafeteria.notificarEvento(TipoEvento.PEDIDO_TOMADO, cliente, id);
+        cafeteria.registrar(nombre + " está tomando el pedido de " + cliente.getNombre() + ".");
+
+        // Simular tiempo de toma de pedido
+        cafeteria.dormir(1000);
+
+        // Si se ha ido mientras tanto, el pedido no llega a la cola de preparación
+        boolean sigue = !cliente.seHaIdo();
+        cafeteria.registrarTrabajo(TimeUnit.MILLISECONDS.toNanos(1000), sigue);
+        if (!sigue) {
+            cafeteria.registrar(nombre + " no llega a pasar el pedido: " + cliente.getNombre() + " ya se fue.");
+            pasarA(EstadoEmpleado.DISPONIBLE);
+            return true;
+        }
+
+        // Crear objeto Pedido y añadirlo a la cola de pedidos pendientes
+        Pedido pedido = new Pedido(cliente, cafeteria.elegirBebida(aleatorio));
+        pasarA(EstadoEmpleado.ENTREGANDO_PEDIDO);
+        if (cafeteria.encolarPedido(pedido)) {
+            // Cambiar estado del cliente a "Esperando café"
+            cliente.marcarPedidoTomado(pedido.getBebida());
+
+            pasarA(EstadoEmpleado.ESPERANDO_CAFE);
+            cafeteria.registrar(nombre + " ha puesto el pedido de " + cliente.getNombre() + " en la cola de preparación.");
+        } else {
+            pasarA(EstadoEmpleado.DISPONIBLE);
+        }
+        return true;
+    }
+
+    /**
+     * Oficio de barista: forma un lote de pedidos compatibles, lo prepara y avisa a cada cliente.
+     * @return true si había algún pedido.
+     */
+    protected boolean prepararSiguienteLote(long esperaMs) throws InterruptedException {
+        List<Pedido> lote = formarLote(cafeteria.getTamanoLote(), esperaMs);
+        if (lote.isEmpty()) {
+            return false;
+        }
+
+        Pedido primero = lote.get(0);
+        for (Pedido pedido : lote) {
+            cafeteria.iniciarPreparacion(pedido, id);
+        }
+        clienteActual = primero.getCliente();
+        bebidaActual = primero.getBebida();
+        tamanoLoteActual = lote.size();
+        pasarA(EstadoEmpleado.PREPARANDO);
+        cafeteria.registrar(nombre + " está preparando " + lote.size() + " x " + primero.getBebida() + ".");
+
+        // Simular tiempo de preparación según la bebida (Café Simple: 2-8 segundos), por lote
+        long duracion = Barista.duracionLote(primero.getBebida().duracionAleatoriaMs(aleatorio), lote.size());
+        cafeteria.dormir(duracion);
+
+        long duracionPorPedidoNs = TimeUnit.MILLISECONDS.toNanos(duracion) / lote.size();
+        for (Pedido pedido : lote) {
+            Cliente cliente = pedido.getCliente();
+            cafeteria.notificarEvento(TipoEvento.PREPARACION_FIN, cliente, id);
+
+            // Completar la espera del cliente: su café está listo (si no se fue durante la preparación)
+            boolean entregado = pedido.finalizar(DesenlacePedido.SERVIDO);
+            cafeteria.registrarTrabajo(duracionPorPedidoNs, entregado);
+
+            cafeteria.notificarPedidoPreparado(pedido, nombre);
+        }
+        cafeteria.notificarLotePreparado();
+        pasarA(EstadoEmpleado.DISPONIBLE);
+        return true;
+    }
+
+    /**
+     * Toma un pedido y, si el tamaño de lote lo permite, completa el lote con los pedidos de la
+     * misma bebida. Los de otra bebida no salen de la cola: siguen contando para su capacidad,
+     * conservan su turno en el planificador y cualquier barista libre puede tomarlos.
+     */
+    private List<Pedido> formarLote(int tamanoLote, long esperaMs) throws InterruptedException {
+        List<Pedido> lote = new ArrayList<>(tamanoLote);
+        Pedido primero = cafeteria.obtenerPedidoDesCola(esperaMs);
+        if (primero == null) {
+            return lote;
+        }
+        lote.add(primero);
+
+        if (tamanoLote > 1) {
+            List<Pedido> extra = new ArrayList<>(tamanoLote - 1);
+            cafeteria.drenarPedidos(extra, tamanoLote - 1, primero.getBebida());
+            for (Pedido p : extra) {
+                if (!cafeteria.descartarSiCancelado(p)) {
+                    lote.add(p);
+                }
+            }
+        }
+        return lote;
+    }
+}
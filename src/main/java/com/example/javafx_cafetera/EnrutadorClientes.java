@@ -0,0 +1,59 @@
+package com.example.javafx_cafetera;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Cómo reparte {@link RedCafeterias} los clientes que llegan entre sus sucursales.
+ */
+public enum EnrutadorClientes {
+    /** Por turnos, sin mirar la carga. */
+    ROUND_ROBIN,
+    /** A la sucursal con menos trabajo pendiente (mira todas). */
+    MENOR_COLA,
+    /** Se sortean dos sucursales y va a la menos cargada (power of two choices). */
+    DOS_OPCIONES;
+
+    /**
+     * Elige la sucursal para el siguiente cliente.
+     * @param turno Contador compartido para el reparto por turnos.
+     * @return Índice en {@code sucursales}.
+     */
+    public int elegir(List<Cafeteria> sucursales, AtomicLong turno, RandomGenerator aleatorio) {
+        int n = sucursales.size();
+        if (n == 1) {
+            return 0;
+        }
+        return switch (this) {
+            case ROUND_ROBIN -> (int) (turno.getAndIncrement() % n);
+            case MENOR_COLA -> {
+                int mejor = 0;
+                int menorCarga = sucursales.get(0).getCarga();
+                for (int i = 1; i < n; i++) {
+                    int carga = sucursales.get(i).getCarga();
+                    if (carga < menorCarga) {
+                        mejor = i;
+                        menorCarga = carga;
+                    }
+                }
+                yield mejor;
+            }
+            case DOS_OPCIONES -> {
+                int a = aleatorio.nextInt(n);
+                int b = aleatorio.nextInt(n - 1);
+                if (b >= a) {
+                    b++;
+                }
+                yield sucursales.get(b).getCarga() < sucursales.get(a).getCarga() ? b : a;
+            }
+        };
+    }
+
+    /**
+     * Convierte un texto ("round-robin", "menor-cola" o "dos-opciones") en un enrutador.
+     */
+    public static EnrutadorClientes desdeTexto(String texto) {
+        return valueOf(texto.trim().toUpperCase().replace('-', '_'));
+    }
+}
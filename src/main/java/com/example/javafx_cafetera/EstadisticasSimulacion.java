@@ -0,0 +1,351 @@
+package com.example.javafx_cafetera;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores globales de una simulación y latencias por etapa.
+ * Usa LongAdder para que los actores puedan incrementarlos sin competir por la misma variable,
+ * e histogramas sin reserva de memoria para las esperas.
+ */
+public class EstadisticasSimulacion {
+    private final LongAdder llegadas = new LongAdder();
+    private final LongAdder servidos = new LongAdder();
+    private final LongAdder abandonos = new LongAdder();
+    private final LongAdder pedidosPreparados = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    // Tareas hechas por un empleado fuera de su puesto (personal flexible)
+    private final LongAdder robos = new LongAdder();
+    // Clientes y pedidos de gente que ya se fue, descartados antes de trabajar en ellos
+    private final LongAdder cancelados = new LongAdder();
+    // Tiempo de trabajo de camareros y baristas, según el cliente siguiera o no esperando al acabar
+    private final LongAdder trabajoUtilNs = new LongAdder();
+    private final LongAdder trabajoPerdidoNs = new LongAdder();
+    // Espera de pedido desglosada por bebida, para ver si el planificador deja alguna sin atender
+    private final Map<Bebida, HistogramaLatencia> esperaPedidoPorBebida = new EnumMap<>(Bebida.class);
+    // Muestras del autoescalado: suma de la plantilla en cada muestra
+    private final LongAdder muestrasPersonal = new LongAdder();
+    private final LongAdder sumaCamareros = new LongAdder();
+    private final LongAdder sumaBaristas = new LongAdder();
+    // Contrapresión: pedidos que encontraron la cola de pedidos llena
+    private final LongAdder bloqueos = new LongAdder();
+    private final LongAdder pedidosRechazados = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+
+    // Latencias por etapa, en nanosegundos
+    private final HistogramaLatencia esperaCola = new HistogramaLatencia();
+    private final HistogramaLatencia esperaPedido = new HistogramaLatencia();
+    private final HistogramaLatencia preparacion = new HistogramaLatencia();
+    private final HistogramaLatencia bloqueoCamarero = new HistogramaLatencia();
+
+    public EstadisticasSimulacion() {
+        for (Bebida b : Bebida.values()) {
+            esperaPedidoPorBebida.put(b, new HistogramaLatencia());
+        }
+    }
+
+    /**
+     * Suma en estas estadísticas las de otra simulación (por ejemplo, las de cada sucursal en el agregado).
+     */
+    public void acumular(EstadisticasSimulacion otra) {
+        llegadas.add(otra.llegadas.sum());
+        servidos.add(otra.servidos.sum());
+        abandonos.add(otra.abandonos.sum());
+        pedidosPreparados.add(otra.pedidosPreparados.sum());
+        lotes.add(otra.lotes.sum());
+        robos.add(otra.robos.sum());
+        cancelados.add(otra.cancelados.sum());
+        trabajoUtilNs.add(otra.trabajoUtilNs.sum());
+        trabajoPerdidoNs.add(otra.trabajoPerdidoNs.sum());
+        muestrasPersonal.add(otra.muestrasPersonal.sum());
+        sumaCamareros.add(otra.sumaCamareros.sum());
+        sumaBaristas.add(otra.sumaBaristas.sum());
+        bloqueos.add(otra.bloqueos.sum());
+        pedidosRechazados.add(otra.pedidosRechazados.sum());
+        reintentos.add(otra.reintentos.sum());
+        esperaCola.acumular(otra.esperaCola);
+        esperaPedido.acumular(otra.esperaPedido);
+        preparacion.acumular(otra.preparacion);
+        bloqueoCamarero.acumular(otra.bloqueoCamarero);
+        for (Bebida b : Bebida.values()) {
+            esperaPedidoPorBebida.get(b).acumular(otra.esperaPedidoPorBebida.get(b));
+        }
+    }
+
+    /**
+     * Guarda contadores e histogramas en un punto de control.
+     */
+    void escribir(DataOutput salida) throws IOException {
+        LongAdder[] contadores = contadores();
+        salida.writeByte(contadores.length);
+        for (LongAdder contador : contadores) {
+            salida.writeLong(contador.sum());
+        }
+        for (HistogramaLatencia h : histogramas()) {
+            h.escribir(salida);
+        }
+        // Por nombre de bebida y no por posición, para que reordenar el menú no mezcle histogramas
+        salida.writeInt(esperaPedidoPorBebida.size());
+        for (Map.Entry<Bebida, HistogramaLatencia> e : esperaPedidoPorBebida.entrySet()) {
+            salida.writeUTF(e.getKey().name());
+            e.getValue().escribir(salida);
+        }
+    }
+
+    /**
+     * Suma en estas estadísticas las leídas de un punto de control (el formato de {@link #escribir}).
+     */
+    void cargar(DataInput entrada) throws IOException {
+        LongAdder[] contadores = contadores();
+        if (entrada.readUnsignedByte() != contadores.length) {
+            throw new IOException("El punto de control tiene otro juego de contadores");
+        }
+        for (LongAdder contador : contadores) {
+            contador.add(entrada.readLong());
+        }
+        for (HistogramaLatencia h : histogramas()) {
+            h.cargar(entrada);
+        }
+        int n = entrada.readInt();
+        for (int i = 0; i < n; i++) {
+            String nombre = entrada.readUTF();
+            HistogramaLatencia h;
+            try {
+                h = esperaPedidoPorBebida.get(Bebida.valueOf(nombre));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Bebida desconocida en el punto de control: " + nombre);
+            }
+            h.cargar(entrada);
+        }
+    }
+
+    // Orden fijo de contadores e histogramas en el punto de control
+    private LongAdder[] contadores() {
+        return new LongAdder[]{llegadas, servidos, abandonos, pedidosPreparados, lotes, robos, cancelados,
+                trabajoUtilNs, trabajoPerdidoNs, muestrasPersonal, sumaCamareros, sumaBaristas,
+                bloqueos, pedidosRechazados, reintentos};
+    }
+
+    private HistogramaLatencia[] histogramas() {
+        return new HistogramaLatencia[]{esperaCola, esperaPedido, preparacion, bloqueoCamarero};
+    }
+
+    public void registrarLlegada() {
+        llegadas.increment();
+    }
+
+    public void registrarServido() {
+        servidos.increment();
+    }
+
+    public void registrarAbandono() {
+        abandonos.increment();
+    }
+
+    public void registrarPedidoPreparado() {
+        pedidosPreparados.increment();
+    }
+
+    /**
+     * Registra que un camarero estuvo bloqueado esperando hueco en la cola de pedidos.
+     */
+    public void registrarBloqueo(long nanos) {
+        bloqueos.increment();
+        bloqueoCamarero.registrar(nanos);
+    }
+
+    public void registrarPedidoRechazado() {
+        pedidosRechazados.increment();
+    }
+
+    public void registrarReintento() {
+        reintentos.increment();
+    }
+
+    /**
+     * Registra la plantilla observada en una muestra del autoescalado.
+     */
+    public void registrarMuestraPersonal(int camareros, int baristas) {
+        muestrasPersonal.increment();
+        sumaCamareros.add(camareros);
+        sumaBaristas.add(baristas);
+    }
+
+    public double getCamarerosMedios() {
+        long n = muestrasPersonal.sum();
+        return n == 0 ? 0 : (double) sumaCamareros.sum() / n;
+    }
+
+    public double getBaristasMedios() {
+        long n = muestrasPersonal.sum();
+        return n == 0 ? 0 : (double) sumaBaristas.sum() / n;
+    }
+
+    /**
+     * Registra cuánto esperó un pedido en la cola de pedidos, en total y para su bebida.
+     */
+    public void registrarEsperaPedido(Bebida bebida, long nanos) {
+        esperaPedido.registrar(nanos);
+        esperaPedidoPorBebida.get(bebida).registrar(nanos);
+    }
+
+    public HistogramaLatencia getEsperaPedido(Bebida bebida) {
+        return esperaPedidoPorBebida.get(bebida);
+    }
+
+    public void registrarCancelado() {
+        cancelados.increment();
+    }
+
+    /**
+     * Registra tiempo de trabajo de un empleado.
+     * @param util false si al terminar el cliente ya se había ido (trabajo desperdiciado).
+     */
+    public void registrarTrabajo(long nanos, boolean util) {
+        (util ? trabajoUtilNs : trabajoPerdidoNs).add(nanos);
+    }
+
+    public long getCancelados() {
+        return cancelados.sum();
+    }
+
+    /**
+     * Fracción del tiempo de trabajo dedicada a clientes que ya se habían ido.
+     */
+    public double getFraccionTrabajoPerdido() {
+        long perdido = trabajoPerdidoNs.sum();
+        long total = perdido + trabajoUtilNs.sum();
+        return total == 0 ? 0 : (double) perdido / total;
+    }
+
+    public long getBloqueos() {
+        return bloqueos.sum();
+    }
+
+    public long getPedidosRechazados() {
+        return pedidosRechazados.sum();
+    }
+
+    public long getReintentos() {
+        return reintentos.sum();
+    }
+
+    /**
+     * Tiempo que los camareros pasaron bloqueados con la cola de pedidos llena.
+     */
+    public HistogramaLatencia getBloqueoCamarero() {
+        return bloqueoCamarero;
+    }
+
+    /**
+     * Tiempo que un cliente pasó en la cola hasta que un camarero lo atendió.
+     */
+    public HistogramaLatencia getEsperaCola() {
+        return esperaCola;
+    }
+
+    /**
+     * Tiempo que un pedido pasó en la cola de pedidos pendientes hasta que un barista lo tomó.
+     */
+    public HistogramaLatencia getEsperaPedido() {
+        return esperaPedido;
+    }
+
+    /**
+     * Tiempo de preparación del café.
+     */
+    public HistogramaLatencia getPreparacion() {
+        return preparacion;
+    }
+
+    public void registrarRobo() {
+        robos.increment();
+    }
+
+    public long getRobos() {
+        return robos.sum();
+    }
+
+    public void registrarLote() {
+        lotes.increment();
+    }
+
+    public long getLotes() {
+        return lotes.sum();
+    }
+
+    /**
+     * Pedidos por lote en promedio (1 si los baristas no preparan en lote).
+     */
+    public double getTamanoMedioLote() {
+        long n = getLotes();
+        return n == 0 ? 0 : (double) getPedidosPreparados() / n;
+    }
+
+    public long getLlegadas() {
+        return llegadas.sum();
+    }
+
+    public long getServidos() {
+        return servidos.sum();
+    }
+
+    public long getAbandonos() {
+        return abandonos.sum();
+    }
+
+    public long getPedidosPreparados() {
+        return pedidosPreparados.sum();
+    }
+
+    /**
+     * Resumen legible de los contadores y del throughput en el intervalo indicado.
+     * @param segundos Duración (real o simulada) a la que corresponden los contadores.
+     */
+    public String resumen(double segundos) {
+        return String.format("Llegadas: %d | Servidos: %d | Abandonos: %d | Pedidos preparados: %d%n"
+                        + "Duración: %.1f s | Throughput: %.2f clientes servidos/s, %.2f pedidos/s",
+                getLlegadas(), getServidos(), getAbandonos(), getPedidosPreparados(),
+                segundos, getServidos() / segundos, getPedidosPreparados() / segundos)
+                + String.format("%nEspera en cola    p50/p99/p99.9: %s%nEspera de pedido  p50/p99/p99.9: %s%nPreparación       p50/p99/p99.9: %s",
+                formatearPercentiles(esperaCola), formatearPercentiles(esperaPedido), formatearPercentiles(preparacion))
+                + String.format("%nLotes: %d (%.2f pedidos por lote) | Tareas robadas: %d", getLotes(), getTamanoMedioLote(), getRobos())
+                + String.format("%nCola de pedidos llena: %d bloqueos (p99 %.0f ms) | %d rechazados | %d reintentos",
+                getBloqueos(), bloqueoCamarero.percentilMs(99), getPedidosRechazados(), getReintentos())
+                + String.format("%nCancelados (ya se habían ido): %d | Trabajo perdido: %.1f %%",
+                getCancelados(), 100 * getFraccionTrabajoPerdido())
+                + (muestrasPersonal.sum() == 0 ? "" : String.format("%nPlantilla media (autoescalado): %.1f camareros, %.1f baristas",
+                getCamarerosMedios(), getBaristasMedios()))
+                + resumenPorBebida();
+    }
+
+    /**
+     * Espera de pedido por bebida; vacío si solo se ha pedido una.
+     */
+    private String resumenPorBebida() {
+        StringBuilder sb = new StringBuilder();
+        int pedidas = 0;
+        for (Bebida b : Bebida.values()) {
+            HistogramaLatencia h = esperaPedidoPorBebida.get(b);
+            if (h.getTotal() > 0) {
+                pedidas++;
+                sb.append(String.format("%n  %-12s p50/p99/p99.9: %s", b, formatearPercentiles(h)));
+            }
+        }
+        return pedidas > 1 ? String.format("%nEspera de pedido por bebida:") + sb : "";
+    }
+
+    /**
+     * Percentiles p50/p99/p99.9 de un histograma en milisegundos.
+     */
+    public static String formatearPercentiles(HistogramaLatencia h) {
+        long total = h.getTotal();
+        double mediaMs = total == 0 ? 0 : h.getSuma() / (double) total / 1e6;
+        return String.format("%.0f / %.0f / %.0f ms (media %.0f ms)",
+                h.percentilMs(50), h.percentilMs(99), h.percentilMs(99.9), mediaMs);
+    }
+}
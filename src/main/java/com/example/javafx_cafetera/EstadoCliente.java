@@ -0,0 +1,59 @@
+package com.example.javafx_cafetera;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Estados del ciclo de vida de un cliente y transiciones permitidas entre ellos.
+ * Varios hilos pueden intentar cambiar el estado a la vez (el camarero que toma el pedido y
+ * el propio cliente que se queda sin paciencia); la transición válida gana y la otra se descarta.
+ */
+public enum EstadoCliente {
+    PENDIENTE("Pendiente"),
+    LLEGO("Llegó"),
+    EN_COLA("En cola"),
+    EN_COLA_REINTENTO("En cola (reintento)"),
+    ESPERANDO_CAFE("Esperando café"),
+    ATENDIDO("Atendido"),
+    RECHAZADO("Rechazado"),
+    SE_FUE("Se fue sin café"),
+    INTERRUMPIDO("Interrumpido");
+
+    static {
+        PENDIENTE.siguientes = EnumSet.of(LLEGO, INTERRUMPIDO);
+        LLEGO.siguientes = EnumSet.of(EN_COLA, INTERRUMPIDO);
+        EN_COLA.siguientes = EnumSet.of(ESPERANDO_CAFE, EN_COLA_REINTENTO, ATENDIDO, RECHAZADO, SE_FUE, INTERRUMPIDO);
+        EN_COLA_REINTENTO.siguientes = EN_COLA.siguientes;
+        ESPERANDO_CAFE.siguientes = EnumSet.of(ATENDIDO, SE_FUE, INTERRUMPIDO);
+        // Tras el desenlace el cliente tarda un momento en salir y aún pueden interrumpirlo
+        ATENDIDO.siguientes = EnumSet.of(INTERRUMPIDO);
+        RECHAZADO.siguientes = EnumSet.of(INTERRUMPIDO);
+        SE_FUE.siguientes = EnumSet.of(INTERRUMPIDO);
+        INTERRUMPIDO.siguientes = EnumSet.noneOf(EstadoCliente.class);
+    }
+
+    private final String texto;
+    private Set<EstadoCliente> siguientes;
+
+    EstadoCliente(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * Texto para mostrar en la interfaz.
+     */
+    public String getTexto() {
+        return texto;
+    }
+
+    public boolean puedePasarA(EstadoCliente destino) {
+        return siguientes.contains(destino);
+    }
+
+    /**
+     * Si el cliente sigue esperando su café (en cola o con el pedido tomado).
+     */
+    public boolean esEspera() {
+        return this == EN_COLA || this == EN_COLA_REINTENTO || this == ESPERANDO_CAFE;
+    }
+}
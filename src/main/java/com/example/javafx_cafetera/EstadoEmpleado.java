@@ -0,0 +1,40 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Estados de un camarero o barista. Los de reposo pueden pasar a cualquier otro; una
+ * tarea solo termina volviendo a reposo (o, al tomar un pedido, pasando a entregarlo).
+ * Solo cambia de estado el hilo del propio empleado, así que una transición no válida es un error.
+ */
+public enum EstadoEmpleado {
+    DISPONIBLE("Disponible", true),
+    /** Bloqueado en su cola a la espera de trabajo. */
+    SIN_TRABAJO("Esperando", true),
+    TOMANDO_PEDIDO("Tomando pedido", false),
+    ENTREGANDO_PEDIDO("Entregando pedido", false),
+    /** El camarero ya dejó el pedido en la cola de preparación. */
+    ESPERANDO_CAFE("Esperando café", true),
+    PREPARANDO("Preparando", false);
+
+    private final String texto;
+    private final boolean reposo;
+
+    EstadoEmpleado(String texto, boolean reposo) {
+        this.texto = texto;
+        this.reposo = reposo;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public boolean esReposo() {
+        return reposo;
+    }
+
+    public boolean puedePasarA(EstadoEmpleado destino) {
+        if (reposo || destino.reposo) {
+            return true;
+        }
+        return this == TOMANDO_PEDIDO && destino == ENTREGANDO_PEDIDO;
+    }
+}
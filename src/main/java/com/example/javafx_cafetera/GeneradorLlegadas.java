@@ -0,0 +1,161 @@
+package com.example.javafx_cafetera;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Instantes de llegada de un proceso abierto (Poisson, ráfagas o traza).
+ * Cada llamada a {@link #siguienteLlegadaMs()} devuelve el instante de la siguiente llegada,
+ * en milisegundos desde el inicio. Lo usan tanto la cafetería con hilos (duerme hasta ese
+ * instante) como el motor de eventos discretos (lo programa en su reloj virtual).
+ * Solo lo consume un hilo; la tasa sí puede cambiarse desde otro (para las rampas).
+ */
+public class GeneradorLlegadas {
+    // Ráfagas: la fase alta multiplica la tasa por 3 y la baja por 0.5. Con fases de 2 s y 8 s
+    // de media la alta ocupa el 20 % del tiempo, así que la tasa media es la configurada
+    private static final double FACTOR_FASE_ALTA = 3.0;
+    private static final double FACTOR_FASE_BAJA = 0.5;
+    private static final double DURACION_FASE_ALTA_MS = 2000;
+    private static final double DURACION_FASE_BAJA_MS = 8000;
+
+    private final ProcesoLlegadas proceso;
+    private final RandomGenerator aleatorio;
+    private final double tasaPorSegundo;
+
+    // Instante de la última llegada generada (con decimales, para no acumular redondeos)
+    private double instanteMs = 0;
+    private boolean faseAlta = false;
+    private double finFaseMs;
+
+    // Traza: instantes grabados, su tasa media y por dónde va la reproducción
+    private final long[] trazaMs;
+    private final double tasaTraza;
+    private int indiceTraza = 0;
+
+    /**
+     * @param tasaPorSegundo Clientes por segundo. Con una traza, 0 la reproduce a su ritmo original
+     *                       y otro valor la acelera o frena hasta esa tasa media.
+     * @param trazaMs Instantes de llegada en milisegundos, en orden (solo para {@link ProcesoLlegadas#TRAZA}).
+     */
+    public GeneradorLlegadas(ProcesoLlegadas proceso, double tasaPorSegundo, long[] trazaMs, RandomGenerator aleatorio) {
+        if (!proceso.esAbierto()) {
+            throw new IllegalArgumentException("El proceso cerrado no genera llegadas");
+        }
+        if (proceso == ProcesoLlegadas.TRAZA) {
+            if (trazaMs == null || trazaMs.length == 0) {
+                throw new IllegalArgumentException("Falta la traza de llegadas");
+            }
+            long duracion = trazaMs[trazaMs.length - 1] - trazaMs[0];
+            this.tasaTraza = trazaMs.length > 1 && duracion > 0 ? 1000.0 * (trazaMs.length - 1) / duracion : 1;
+        } else {
+            if (tasaPorSegundo <= 0) {
+                throw new IllegalArgumentException("La tasa de llegadas debe ser positiva: " + tasaPorSegundo);
+            }
+            this.tasaTraza = 0;
+        }
+        this.proceso = proceso;
+        this.tasaPorSegundo = tasaPorSegundo;
+        this.trazaMs = trazaMs;
+        this.aleatorio = aleatorio;
+        this.finFaseMs = exponencial(1 / DURACION_FASE_BAJA_MS);
+    }
+
+    /**
+     * Crea el generador del proceso abierto de la configuración.
+     */
+    public static GeneradorLlegadas desde(ConfiguracionSimulacion configuracion, RandomGenerator aleatorio) {
+        return new GeneradorLlegadas(configuracion.getProcesoLlegadas(), configuracion.getTasaLlegadas(),
+                configuracion.getTrazaLlegadasMs(), aleatorio);
+    }
+
+    /**
+     * Lee una traza: un instante de llegada en milisegundos por línea, en orden.
+     * Las líneas vacías y las que empiezan por # se ignoran.
+     */
+    public static long[] cargarTraza(Path ruta) throws IOException {
+        List<Long> instantes = new ArrayList<>();
+        long anterior = Long.MIN_VALUE;
+        for (String linea : Files.readAllLines(ruta, StandardCharsets.UTF_8)) {
+            linea = linea.trim();
+            if (linea.isEmpty() || linea.startsWith("#")) {
+                continue;
+            }
+            long instante = Long.parseLong(linea);
+            if (instante < anterior) {
+                throw new IOException("La traza no está ordenada: " + instante + " después de " + anterior);
+            }
+            instantes.add(instante);
+            anterior = instante;
+        }
+        long[] traza = new long[instantes.size()];
+        for (int i = 0; i < traza.length; i++) {
+            traza[i] = instantes.get(i);
+        }
+        return traza;
+    }
+
+    public double getTasaPorSegundo() {
+        return proceso == ProcesoLlegadas.TRAZA && tasaPorSegundo <= 0 ? tasaTraza : tasaPorSegundo;
+    }
+
+    /**
+     * Instante de la siguiente llegada, en milisegundos desde el inicio.
+     */
+    public long siguienteLlegadaMs() {
+        switch (proceso) {
+            case POISSON -> instanteMs += exponencial(tasaPorSegundo / 1000);
+            case RAFAGAS -> instanteMs = siguienteEnRafagas();
+            default -> instanteMs += siguienteHuecoTraza();
+        }
+        return Math.round(instanteMs);
+    }
+
+    /**
+     * Poisson modulado por una cadena de dos fases. Si la llegada candidata cae después del
+     * cambio de fase se descarta y se vuelve a sortear desde el cambio (sin memoria).
+     */
+    private double siguienteEnRafagas() {
+        double t = instanteMs;
+        while (true) {
+            double tasa = tasaPorSegundo / 1000 * (faseAlta ? FACTOR_FASE_ALTA : FACTOR_FASE_BAJA);
+            double candidato = t + exponencial(tasa);
+            if (candidato < finFaseMs) {
+                return candidato;
+            }
+            t = finFaseMs;
+            faseAlta = !faseAlta;
+            finFaseMs = t + exponencial(1 / (faseAlta ? DURACION_FASE_ALTA_MS : DURACION_FASE_BAJA_MS));
+        }
+    }
+
+    /**
+     * Hueco hasta la siguiente llegada de la traza, escalado a la tasa pedida.
+     * Al acabarse la traza vuelve a empezar, con un hueco medio entre vuelta y vuelta.
+     */
+    private double siguienteHuecoTraza() {
+        int i = indiceTraza % trazaMs.length;
+        double hueco;
+        if (indiceTraza == 0) {
+            hueco = trazaMs[0];
+        } else if (i == 0) {
+            hueco = 1000 / tasaTraza;
+        } else {
+            hueco = trazaMs[i] - trazaMs[i - 1];
+        }
+        indiceTraza++;
+        double tasa = tasaPorSegundo;
+        return tasa > 0 ? hueco * tasaTraza / tasa : hueco;
+    }
+
+    /**
+     * Tiempo exponencial de media 1/tasa.
+     */
+    private double exponencial(double tasa) {
+        return -Math.log(1 - aleatorio.nextDouble()) / tasa;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.javafx_cafetera;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias al estilo HDR: cubetas log-lineales con 32 subcubetas por
+ * potencia de dos (error relativo inferior al 3 %) desde 1 ns hasta varios siglos.
+ * Registrar un valor no reserva memoria: calcula el índice con operaciones de bits e
+ * incrementa un contador atómico, así que se puede llamar desde cualquier actor.
+ */
+public class HistogramaLatencia {
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int NUM_CUBETAS = (63 - BITS_SUBCUBETA + 1) * SUBCUBETAS;
+
+    private final AtomicLongArray cuentas = new AtomicLongArray(NUM_CUBETAS);
+    private final AtomicLong maximo = new AtomicLong();
+    // Suma de todos los valores, para medias por intervalo (diferencia entre dos lecturas)
+    private final LongAdder suma = new LongAdder();
+
+    /**
+     * Crea un histograma vacío.
+     */
+    public HistogramaLatencia() {
+    }
+
+    /**
+     * Registra una latencia en nanosegundos (los valores negativos cuentan como 0).
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        cuentas.incrementAndGet(indice(valor));
+        suma.add(valor);
+        long actual = maximo.get();
+        while (valor > actual && !maximo.compareAndSet(actual, valor)) {
+            actual = maximo.get();
+        }
+    }
+
+    /**
+     * Número total de valores registrados.
+     */
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            total += cuentas.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Suma de todos los valores registrados, en nanosegundos.
+     */
+    public long getSuma() {
+        return suma.sum();
+    }
+
+    /**
+     * Valor máximo registrado, en nanosegundos.
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Percentil aproximado en nanosegundos (límite superior de la cubeta que lo contiene).
+     * @param percentil Entre 0 y 100, por ejemplo 99.9.
+     */
+    public long percentil(double percentil) {
+        long[] copia = new long[NUM_CUBETAS];
+        long total = 0;
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            copia[i] = cuentas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(percentil / 100.0 * total));
+        long acumulado = 0;
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Percentil en milisegundos, para mostrar.
+     */
+    public double percentilMs(double percentil) {
+        return percentil(percentil) / 1e6;
+    }
+
+    /**
+     * Suma las cuentas de otro histograma en este.
+     */
+    public void acumular(HistogramaLatencia otro) {
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            long n = otro.cuentas.get(i);
+            if (n != 0) {
+                cuentas.addAndGet(i, n);
+            }
+        }
+        suma.add(otro.getSuma());
+        long otroMaximo = otro.getMaximo();
+        long actual = maximo.get();
+        while (otroMaximo > actual && !maximo.compareAndSet(actual, otroMaximo)) {
+            actual = maximo.get();
+        }
+    }
+
+    /**
+     * Pone a cero todas las cubetas.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            cuentas.set(i, 0);
+        }
+        maximo.set(0);
+        suma.reset();
+    }
+
+    /**
+     * Guarda el histograma en un punto de control: solo las cubetas no vacías, como pares índice-cuenta.
+     */
+    void escribir(DataOutput salida) throws IOException {
+        int noVacias = 0;
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            if (cuentas.get(i) != 0) {
+                noVacias++;
+            }
+        }
+        salida.writeShort(noVacias);
+        for (int i = 0, escritas = 0; i < NUM_CUBETAS && escritas < noVacias; i++) {
+            long n = cuentas.get(i);
+            if (n != 0) {
+                salida.writeShort(i);
+                salida.writeLong(n);
+                escritas++;
+            }
+        }
+        salida.writeLong(getSuma());
+        salida.writeLong(getMaximo());
+    }
+
+    /**
+     * Suma en este histograma el leído de un punto de control (el formato de {@link #escribir}).
+     */
+    void cargar(DataInput entrada) throws IOException {
+        int noVacias = entrada.readUnsignedShort();
+        for (int k = 0; k < noVacias; k++) {
+            int i = entrada.readUnsignedShort();
+            if (i >= NUM_CUBETAS) {
+                throw new IOException("Cubeta fuera de rango en el punto de control: " + i);
+            }
+            cuentas.addAndGet(i, entrada.readLong());
+        }
+        suma.add(entrada.readLong());
+        long otroMaximo = entrada.readLong();
+        long actual = maximo.get();
+        while (otroMaximo > actual && !maximo.compareAndSet(actual, otroMaximo)) {
+            actual = maximo.get();
+        }
+    }
+
+    private static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = exponente - BITS_SUBCUBETA;
+        int mantisa = (int) (valor >>> desplazamiento) - SUBCUBETAS;
+        return (desplazamiento + 1) * SUBCUBETAS + mantisa;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int desplazamiento = indice / SUBCUBETAS - 1;
+        long mantisa = indice % SUBCUBETAS + SUBCUBETAS;
+        return ((mantisa + 1) << desplazamiento) - 1;
+    }
+}
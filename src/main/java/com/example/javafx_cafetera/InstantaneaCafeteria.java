@@ -0,0 +1,12 @@
+package com.example.javafx_cafetera;
+
+import java.util.List;
+
+/**
+ * Copia inmutable del estado visible de la cafetería en un instante.
+ * La interfaz publica como mucho una por fotograma. Los clientes no se copian: la lista
+ * se mantiene con los avisos de entrada y salida de {@link OyenteCafeteria}.
+ */
+public record InstantaneaCafeteria(List<String> estadosCamareros, List<String> estadosBaristas,
+                                   int pedidosPendientes, int maximoPedidos) {
+}
@@ -5,8 +5,12 @@ import javafx.application.Application;
 /**
  * Clase lanzadora de la aplicación JavaFX.
  * Sirve como punto de entrada pa ejecutar la aplicación
+ * (con -Dcafeteria.modo=virtual los actores usan hilos virtuales).
  */
 public class Launcher {
+    private Launcher() {
+    }
+
     public static void main(String[] args) {
         Application.launch(CafeteriaApp.class, args);
     }
@@ -0,0 +1,234 @@
+package com.example.javafx_cafetera;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Punto de entrada sin interfaz gráfica.
+ * Ejecuta un escenario durante un tiempo fijo y muestra el throughput por consola,
+ * pensado para simulaciones por lotes en servidores sin pantalla.
+ * Con --motor=eventos se usa el reloj virtual y --segundos es tiempo simulado.
+ * Con --diario=ruta se graban todos los eventos en un diario binario (ver LectorDiario).
+ * Con --sucursales=N se simula una red de N cafeterías (ver RedCafeterias); --clientes es el total de la red.
+ * Con --llegadas=poisson|rafagas|traza los clientes llegan en lazo abierto a --tasa clientes/s en lugar
+ * de la tanda de --clientes (para buscar la capacidad de una plantilla, ver RampaCarga).
+ * Con --punto-control=ruta se guarda un punto de control cada --cada segundos y al terminar;
+ * con --reanudar=ruta la simulación continúa desde uno guardado (ver PuntoControl).
+ *
+ * Uso: LauncherConsola [--motor=hilos|eventos] [--modo=plataforma|virtual] [--camareros=N]
+ *                      [--baristas=N] [--clientes=N] [--desfase=ms] [--segundos=N] [--diario=ruta] [--verbose]
+ *                      [--capacidad-pedidos=N] [--politica=bloquear|descartar|reintentar] [--lote=K] [--flexible]
+ *                      [--autoescalar] [--objetivo-espera=ms] [--min-camareros=N] [--max-camareros=N]
+ *                      [--min-baristas=N] [--max-baristas=N] [--menu=simple|variado]
+ *                      [--planificador=fifo|sjf|envejecimiento]
+ *                      [--sucursales=N] [--enrutador=round-robin|menor-cola|dos-opciones] [--semilla=N]
+ *                      [--llegadas=cerrado|poisson|rafagas|traza] [--tasa=clientes/s] [--traza=ruta]
+ *                      [--punto-control=ruta] [--cada=s] [--reanudar=ruta] [--escala=factor]
+ */
+public class LauncherConsola {
+    private LauncherConsola() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        ConfiguracionSimulacion configuracion = new ConfiguracionSimulacion();
+        long segundos = 30;
+        boolean verbose = false;
+        boolean motorEventos = false;
+        Path rutaDiario = null;
+        Path rutaPuntoControl = null;
+        long cadaSegundos = 60;
+        boolean cadaIndicado = false;
+        PuntoControl reanudarDesde = null;
+
+        for (String arg : args) {
+            String[] partes = arg.split("=", 2);
+            String valor = partes.length > 1 ? partes[1] : "";
+            try {
+                switch (partes[0]) {
+                    case "--motor" -> motorEventos = valor.equals("eventos");
+                    case "--modo" -> configuracion.setModo(ModoEjecucion.desdeTexto(valor));
+                    case "--camareros" -> configuracion.setNumCamareros(Integer.parseInt(valor));
+                    case "--baristas" -> configuracion.setNumBaristas(Integer.parseInt(valor));
+                    case "--clientes" -> configuracion.setNumClientes(Integer.parseInt(valor));
+                    case "--capacidad-pedidos" -> configuracion.setCapacidadPedidos(Integer.parseInt(valor));
+                    case "--politica" -> configuracion.setPoliticaDesbordamiento(PoliticaDesbordamiento.desdeTexto(valor));
+                    case "--lote" -> configuracion.setTamanoLote(Integer.parseInt(valor));
+                    case "--flexible" -> configuracion.setPersonalFlexible(true);
+                    case "--semilla" -> configuracion.setSemilla(Long.parseLong(valor));
+                    case "--llegadas" -> configuracion.setProcesoLlegadas(ProcesoLlegadas.desdeTexto(valor));
+                    case "--tasa" -> configuracion.setTasaLlegadas(Double.parseDouble(valor));
+                    case "--traza" -> configuracion.setTrazaLlegadasMs(GeneradorLlegadas.cargarTraza(Path.of(valor)));
+                    case "--sucursales" -> configuracion.setNumSucursales(Integer.parseInt(valor));
+                    case "--enrutador" -> configuracion.setEnrutador(EnrutadorClientes.desdeTexto(valor));
+                    case "--menu" -> configuracion.setMenuVariado(valor.equals("variado"));
+                    case "--planificador" -> configuracion.setPlanificador(PlanificadorPedidos.desdeTexto(valor));
+                    case "--autoescalar" -> configuracion.setAutoescalado(true);
+                    case "--objetivo-espera" -> configuracion.setObjetivoEsperaMs(Long.parseLong(valor));
+                    case "--min-camareros" -> configuracion.setMinCamareros(Integer.parseInt(valor));
+                    case "--max-camareros" -> configuracion.setMaxCamareros(Integer.parseInt(valor));
+                    case "--min-baristas" -> configuracion.setMinBaristas(Integer.parseInt(valor));
+                    case "--max-baristas" -> configuracion.setMaxBaristas(Integer.parseInt(valor));
+                    case "--desfase" -> configuracion.setDesfaseLlegadaMs(Long.parseLong(valor));
+                    case "--segundos" -> segundos = Long.parseLong(valor);
+                    case "--diario" -> rutaDiario = Path.of(valor);
+                    case "--punto-control" -> rutaPuntoControl = Path.of(valor);
+                    case "--cada" -> {
+                        cadaSegundos = Long.parseLong(valor);
+                        cadaIndicado = true;
+                    }
+                    case "--escala" -> configuracion.setEscalaTiempo(Double.parseDouble(valor));
+                    case "--reanudar" -> reanudarDesde = PuntoControl.leer(Path.of(valor));
+                    case "--verbose" -> verbose = true;
+                    default -> {
+                        System.err.println("Argumento desconocido: " + arg);
+                        System.exit(2);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Incluye los números mal escritos (NumberFormatException) y los valores fuera de rango
+                System.err.println("Valor no válido en " + arg + ": " + e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        boolean usaPuntoControl = rutaPuntoControl != null || reanudarDesde != null || cadaIndicado;
+        if (motorEventos) {
+            if (usaPuntoControl) {
+                System.err.println("Los puntos de control (--punto-control, --cada, --reanudar) no admiten --motor=eventos.");
+                System.exit(2);
+            }
+            ejecutarEventosDiscretos(configuracion, segundos);
+            return;
+        }
+        if (configuracion.getNumSucursales() > 1) {
+            if (usaPuntoControl) {
+                System.err.println("Los puntos de control (--punto-control, --cada, --reanudar) solo admiten una cafetería (--sucursales=1).");
+                System.exit(2);
+            }
+            if (rutaDiario != null) {
+                System.err.println("El diario de eventos solo admite una cafetería (--sucursales=1).");
+                System.exit(2);
+            }
+            if (configuracion.getProcesoLlegadas().esAbierto()) {
+                System.err.println("Las llegadas en lazo abierto solo admiten una cafetería (--sucursales=1).");
+                System.exit(2);
+            }
+            ejecutarRed(configuracion, segundos, verbose);
+            return;
+        }
+
+        Cafeteria cafeteria = new Cafeteria(configuracion);
+        if (verbose) {
+            cafeteria.suscribir(new OyenteCafeteria() {
+                @Override
+                public void alRegistrar(long instanteMs, String mensaje) {
+                    System.out.printf("[%tT] %s%n", instanteMs, mensaje);
+                }
+            });
+        }
+
+        DiarioEventos diario = null;
+        if (rutaDiario != null) {
+            diario = new DiarioEventos(rutaDiario, configuracion.getEscalaTiempo());
+            cafeteria.suscribir(diario);
+        }
+
+        System.out.printf("Escenario: modo=%s, camareros=%d, baristas=%d, clientes=%d, duración=%d s%n",
+                configuracion.getModo(), configuracion.getNumCamareros(), configuracion.getNumBaristas(),
+                configuracion.getNumClientes(), segundos);
+
+        long inicio = System.nanoTime();
+        if (reanudarDesde != null) {
+            cafeteria.reanudarSimulacion(reanudarDesde);
+        } else {
+            cafeteria.iniciarSimulacion();
+        }
+        long finMs = segundos * 1000;
+        long transcurridoMs;
+        while ((transcurridoMs = (System.nanoTime() - inicio) / 1_000_000) < finMs) {
+            Thread.sleep(rutaPuntoControl == null ? finMs - transcurridoMs : Math.min(finMs - transcurridoMs, cadaSegundos * 1000));
+            if (rutaPuntoControl != null && (System.nanoTime() - inicio) / 1_000_000 < finMs) {
+                // La escritura va en otro hilo; si falla se avisa y la simulación sigue
+                cafeteria.guardarPuntoControl(rutaPuntoControl).exceptionally(error -> {
+                    System.err.println("No se pudo guardar el punto de control: " + error.getMessage());
+                    return null;
+                });
+            }
+        }
+        if (rutaPuntoControl != null) {
+            PuntoControl punto = cafeteria.guardarPuntoControl(rutaPuntoControl).join();
+            System.out.printf("Punto de control: %d clientes en curso en %s%n", punto.clientes().size(), rutaPuntoControl);
+        }
+        System.out.printf("Al terminar: %d clientes esperando, %d baristas preparando%n",
+                cafeteria.getClientesEsperando(), cafeteria.getBaristasPreparando());
+        cafeteria.detenerSimulacion();
+        // En tiempo de simulación, como las estadísticas; tras reanudar incluye también el de antes
+        double transcurrido = cafeteria.getSegundosSimulados();
+
+        System.out.println(cafeteria.getEstadisticas().resumen(transcurrido));
+        if (diario != null) {
+            diario.close();
+            System.out.printf("Diario: %d eventos en %s%n", diario.getRegistros(), rutaDiario);
+        }
+    }
+
+    /**
+     * Ejecuta el escenario en una red de sucursales y muestra el resumen de cada una y el agregado.
+     */
+    private static void ejecutarRed(ConfiguracionSimulacion configuracion, long segundos, boolean verbose)
+            throws InterruptedException {
+        RedCafeterias red = new RedCafeterias(configuracion);
+        if (verbose) {
+            for (Cafeteria sucursal : red.getSucursales()) {
+                String prefijo = sucursal.getNombre();
+                sucursal.suscribir(new OyenteCafeteria() {
+                    @Override
+                    public void alRegistrar(long instanteMs, String mensaje) {
+                        System.out.printf("[%tT] [%s] %s%n", instanteMs, prefijo, mensaje);
+                    }
+                });
+            }
+        }
+
+        System.out.printf("Escenario (red): sucursales=%d, enrutador=%s, modo=%s, camareros=%d y baristas=%d por sucursal, "
+                        + "clientes=%d, duración=%d s%n",
+                configuracion.getNumSucursales(), configuracion.getEnrutador(), configuracion.getModo(),
+                configuracion.getNumCamareros(), configuracion.getNumBaristas(), configuracion.getNumClientes(), segundos);
+
+        long inicio = System.nanoTime();
+        red.iniciar();
+        long restanteMs = segundos * 1000 - (System.nanoTime() - inicio) / 1_000_000;
+        if (restanteMs > 0) {
+            Thread.sleep(restanteMs);
+        }
+        red.detener();
+        // Las estadísticas van en tiempo de simulación
+        double transcurrido = (System.nanoTime() - inicio) / 1e9 / configuracion.getEscalaTiempo();
+
+        for (Cafeteria sucursal : red.getSucursales()) {
+            EstadisticasSimulacion e = sucursal.getEstadisticas();
+            System.out.printf("%s: llegadas %d | servidos %d | abandonos %d | espera en cola %s%n",
+                    sucursal.getNombre(), e.getLlegadas(), e.getServidos(), e.getAbandonos(),
+                    EstadisticasSimulacion.formatearPercentiles(e.getEsperaCola()));
+        }
+        System.out.println("Agregado:");
+        System.out.println(red.getEstadisticasAgregadas().resumen(transcurrido));
+    }
+
+    /**
+     * Ejecuta el escenario en el motor de eventos discretos e imprime también el tiempo real empleado.
+     */
+    private static void ejecutarEventosDiscretos(ConfiguracionSimulacion configuracion, long segundos) {
+        System.out.printf("Escenario (eventos discretos): camareros=%d, baristas=%d, clientes=%d, duración simulada=%d s%n",
+                configuracion.getNumCamareros(), configuracion.getNumBaristas(),
+                configuracion.getNumClientes(), segundos);
+
+        long inicio = System.nanoTime();
+        SimulacionEventosDiscretos simulacion = new SimulacionEventosDiscretos(configuracion);
+        EstadisticasSimulacion estadisticas = simulacion.ejecutar(segundos * 1000);
+        double realMs = (System.nanoTime() - inicio) / 1e6;
+
+        System.out.println(estadisticas.resumen(simulacion.getReloj() / 1000.0));
+        System.out.printf("Tiempo real: %.1f ms%n", realMs);
+    }
+}
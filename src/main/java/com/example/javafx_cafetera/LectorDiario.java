@@ -0,0 +1,205 @@
+package com.example.javafx_cafetera;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lee un diario escrito por {@link DiarioEventos} y reconstruye fuera de línea
+ * la línea de tiempo y las estadísticas de la ejecución.
+ *
+ * Uso: LectorDiario fichero.diario [--linea-tiempo]
+ */
+public class LectorDiario {
+
+    /**
+     * Un registro del diario.
+     * @param instanteNs Nanosegundos de simulación desde que se abrió el diario.
+     */
+    public record RegistroEvento(long instanteNs, TipoEvento tipo, int idCliente, int idEmpleado) {
+    }
+
+    private final long inicioEpocaMs;
+    private final List<RegistroEvento> registros;
+
+    private LectorDiario(long inicioEpocaMs, List<RegistroEvento> registros) {
+        this.inicioEpocaMs = inicioEpocaMs;
+        this.registros = registros;
+    }
+
+    /**
+     * Lee el diario completo y ordena los registros por instante
+     * (los hilos reservan posiciones en orden, pero pueden escribir ligeramente desordenados).
+     * El fichero se mapea segmento a segmento, igual que lo escribe {@link DiarioEventos},
+     * así que no hay límite de 2 GiB.
+     */
+    public static LectorDiario leer(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < DiarioEventos.TAMANO_CABECERA) {
+                throw new IOException("No es un diario de la cafetería: " + ruta);
+            }
+            MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, DiarioEventos.TAMANO_CABECERA);
+            cabecera.order(ByteOrder.LITTLE_ENDIAN);
+            if (cabecera.getInt(0) != DiarioEventos.MAGICO) {
+                throw new IOException("No es un diario de la cafetería: " + ruta);
+            }
+            if (cabecera.getInt(4) != DiarioEventos.VERSION) {
+                throw new IOException("Versión de diario no soportada: " + cabecera.getInt(4));
+            }
+            int tamanoRegistro = cabecera.getInt(8);
+            long tamanoSegmento = (long) cabecera.getInt(12) * tamanoRegistro;
+            long inicio = cabecera.getLong(16);
+
+            List<RegistroEvento> registros = new ArrayList<>();
+            segmentos:
+            for (long base = DiarioEventos.TAMANO_CABECERA; base < tamano; base += tamanoSegmento) {
+                long longitud = Math.min(tamanoSegmento, tamano - base);
+                MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, base, longitud);
+                mapa.order(ByteOrder.LITTLE_ENDIAN);
+                for (int p = 0; p + tamanoRegistro <= longitud; p += tamanoRegistro) {
+                    TipoEvento tipo = TipoEvento.desdeCodigo(mapa.getInt(p + 8));
+                    if (tipo == null) {
+                        // Registro vacío o incompleto: final del diario
+                        break segmentos;
+                    }
+                    registros.add(new RegistroEvento(mapa.getLong(p), tipo, mapa.getInt(p + 12), mapa.getInt(p + 16)));
+                }
+            }
+            registros.sort(Comparator.comparingLong(RegistroEvento::instanteNs));
+            return new LectorDiario(inicio, registros);
+        }
+    }
+
+    /**
+     * Registros en orden cronológico.
+     */
+    public List<RegistroEvento> getRegistros() {
+        return registros;
+    }
+
+    /**
+     * Instante (milisegundos de época) en que se abrió el diario.
+     */
+    public long getInicioEpocaMs() {
+        return inicioEpocaMs;
+    }
+
+    /**
+     * Reconstruye los contadores de la simulación a partir de los eventos.
+     */
+    public EstadisticasSimulacion reconstruirEstadisticas() {
+        EstadisticasSimulacion estadisticas = new EstadisticasSimulacion();
+        // Inicio de la etapa en curso de cada cliente, para emparejarlo con el evento que la cierra
+        Map<Integer, Long> enCola = new HashMap<>();
+        Map<Integer, Long> encolados = new HashMap<>();
+        Map<Integer, Long> enPreparacion = new HashMap<>();
+        for (RegistroEvento r : registros) {
+            int id = r.idCliente();
+            switch (r.tipo()) {
+                // EN_COLA se repite en cada reintento; la llegada solo una vez por cliente
+                case LLEGADA -> estadisticas.registrarLlegada();
+                case EN_COLA -> enCola.put(id, r.instanteNs());
+                case PEDIDO_TOMADO -> medir(enCola, r, estadisticas.getEsperaCola());
+                case PEDIDO_ENCOLADO -> encolados.put(id, r.instanteNs());
+                case PREPARACION_INICIO -> {
+                    // El diario no guarda la bebida: solo se reconstruye la espera de pedido global
+                    medir(encolados, r, estadisticas.getEsperaPedido());
+                    enPreparacion.put(id, r.instanteNs());
+                }
+                case PREPARACION_FIN -> {
+                    estadisticas.registrarPedidoPreparado();
+                    medir(enPreparacion, r, estadisticas.getPreparacion());
+                }
+                case SERVIDO -> estadisticas.registrarServido();
+                case ABANDONO -> {
+                    estadisticas.registrarAbandono();
+                    enCola.remove(id);
+                }
+                case PEDIDO_RECHAZADO -> {
+                    estadisticas.registrarPedidoRechazado();
+                    encolados.remove(id);
+                }
+                case PEDIDO_REINTENTO -> {
+                    estadisticas.registrarReintento();
+                    encolados.remove(id);
+                }
+                case CANCELADO -> {
+                    estadisticas.registrarCancelado();
+                    encolados.remove(id);
+                }
+            }
+        }
+        return estadisticas;
+    }
+
+    private static void medir(Map<Integer, Long> inicios, RegistroEvento fin, HistogramaLatencia histograma) {
+        Long inicio = inicios.remove(fin.idCliente());
+        if (inicio != null) {
+            histograma.registrar(fin.instanteNs() - inicio);
+        }
+    }
+
+    /**
+     * Duración media (en ms) entre dos eventos del mismo cliente, por ejemplo
+     * EN_COLA → PEDIDO_TOMADO para la espera en cola.
+     */
+    public double duracionMediaMs(TipoEvento desde, TipoEvento hasta) {
+        Map<Integer, Long> inicios = new HashMap<>();
+        long total = 0;
+        long n = 0;
+        for (RegistroEvento r : registros) {
+            if (r.tipo() == desde) {
+                inicios.put(r.idCliente(), r.instanteNs());
+            } else if (r.tipo() == hasta) {
+                Long inicio = inicios.remove(r.idCliente());
+                if (inicio != null) {
+                    total += r.instanteNs() - inicio;
+                    n++;
+                }
+            }
+        }
+        return n == 0 ? 0 : total / 1e6 / n;
+    }
+
+    /**
+     * Duración total del diario, del primer al último evento, en segundos.
+     */
+    public double duracionSegundos() {
+        if (registros.isEmpty()) {
+            return 0;
+        }
+        return (registros.get(registros.size() - 1).instanteNs() - registros.get(0).instanteNs()) / 1e9;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: LectorDiario fichero.diario [--linea-tiempo]");
+            System.exit(2);
+        }
+        LectorDiario lector = leer(Path.of(args[0]));
+        boolean lineaTiempo = args.length > 1 && args[1].equals("--linea-tiempo");
+
+        if (lineaTiempo) {
+            for (RegistroEvento r : lector.getRegistros()) {
+                System.out.printf("%12.3f ms  %-18s cliente=%d empleado=%d%n",
+                        r.instanteNs() / 1e6, r.tipo(), r.idCliente(), r.idEmpleado());
+            }
+        }
+
+        System.out.printf("Diario con %d eventos, iniciado %tF %<tT%n", lector.getRegistros().size(), lector.getInicioEpocaMs());
+        System.out.println(lector.reconstruirEstadisticas().resumen(Math.max(lector.duracionSegundos(), 1e-9)));
+        System.out.printf("Espera media en cola: %.1f ms | Espera media del pedido: %.1f ms | Preparación media: %.1f ms%n",
+                lector.duracionMediaMs(TipoEvento.EN_COLA, TipoEvento.PEDIDO_TOMADO),
+                lector.duracionMediaMs(TipoEvento.PEDIDO_ENCOLADO, TipoEvento.PREPARACION_INICIO),
+                lector.duracionMediaMs(TipoEvento.PREPARACION_INICIO, TipoEvento.PREPARACION_FIN));
+    }
+}
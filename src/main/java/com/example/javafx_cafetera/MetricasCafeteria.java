@@ -0,0 +1,187 @@
+package com.example.javafx_cafetera;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * MBean que expone por JMX las estadísticas de una cafetería en ejecución.
+ */
+public class MetricasCafeteria implements MetricasCafeteriaMBean {
+    private final Cafeteria cafeteria;
+    private final EstadisticasSimulacion estadisticas;
+    private ObjectName nombre;
+
+    public MetricasCafeteria(Cafeteria cafeteria, EstadisticasSimulacion estadisticas) {
+        this.cafeteria = cafeteria;
+        this.estadisticas = estadisticas;
+    }
+
+    /**
+     * Registra el MBean en el servidor de la plataforma. Si ya hay uno con ese nombre
+     * (de una simulación anterior) lo sustituye.
+     */
+    public void publicar(String nombreCafeteria) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            nombre = new ObjectName("com.example.javafx_cafetera:type=Cafeteria,name=" + ObjectName.quote(nombreCafeteria));
+            if (servidor.isRegistered(nombre)) {
+                servidor.unregisterMBean(nombre);
+            }
+            servidor.registerMBean(this, nombre);
+        } catch (JMException e) {
+            System.err.println("No se pudieron publicar las métricas JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retira el MBean del servidor si sigue registrado.
+     */
+    public void retirar() {
+        if (nombre == null) {
+            return;
+        }
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            if (servidor.isRegistered(nombre)) {
+                servidor.unregisterMBean(nombre);
+            }
+        } catch (JMException e) {
+            System.err.println("No se pudieron retirar las métricas JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long getLlegadas() {
+        return estadisticas.getLlegadas();
+    }
+
+    @Override
+    public long getServidos() {
+        return estadisticas.getServidos();
+    }
+
+    @Override
+    public long getAbandonos() {
+        return estadisticas.getAbandonos();
+    }
+
+    @Override
+    public long getPedidosPreparados() {
+        return estadisticas.getPedidosPreparados();
+    }
+
+    @Override
+    public double getServidosPorSegundo() {
+        // Cuenta desde que se abrió (o reanudó) la cafetería, más lo simulado antes de reanudar
+        double segundos = cafeteria.getSegundosSimulados();
+        return segundos > 0 ? estadisticas.getServidos() / segundos : 0;
+    }
+
+    @Override
+    public double getTamanoMedioLote() {
+        return estadisticas.getTamanoMedioLote();
+    }
+
+    @Override
+    public long getRobos() {
+        return estadisticas.getRobos();
+    }
+
+    @Override
+    public long getCancelados() {
+        return estadisticas.getCancelados();
+    }
+
+    @Override
+    public double getFraccionTrabajoPerdido() {
+        return estadisticas.getFraccionTrabajoPerdido();
+    }
+
+    @Override
+    public double getCamarerosMedios() {
+        return estadisticas.getCamarerosMedios();
+    }
+
+    @Override
+    public double getBaristasMedios() {
+        return estadisticas.getBaristasMedios();
+    }
+
+    @Override
+    public double getEsperaColaP50Ms() {
+        return estadisticas.getEsperaCola().percentilMs(50);
+    }
+
+    @Override
+    public double getEsperaColaP99Ms() {
+        return estadisticas.getEsperaCola().percentilMs(99);
+    }
+
+    @Override
+    public double getEsperaColaP999Ms() {
+        return estadisticas.getEsperaCola().percentilMs(99.9);
+    }
+
+    @Override
+    public double getEsperaPedidoP50Ms() {
+        return estadisticas.getEsperaPedido().percentilMs(50);
+    }
+
+    @Override
+    public double getEsperaPedidoP99Ms() {
+        return estadisticas.getEsperaPedido().percentilMs(99);
+    }
+
+    @Override
+    public double getEsperaPedidoP999Ms() {
+        return estadisticas.getEsperaPedido().percentilMs(99.9);
+    }
+
+    @Override
+    public double getPreparacionP50Ms() {
+        return estadisticas.getPreparacion().percentilMs(50);
+    }
+
+    @Override
+    public double getPreparacionP99Ms() {
+        return estadisticas.getPreparacion().percentilMs(99);
+    }
+
+    @Override
+    public double getPreparacionP999Ms() {
+        return estadisticas.getPreparacion().percentilMs(99.9);
+    }
+
+    @Override
+    public long getBloqueos() {
+        return estadisticas.getBloqueos();
+    }
+
+    @Override
+    public long getPedidosRechazados() {
+        return estadisticas.getPedidosRechazados();
+    }
+
+    @Override
+    public long getReintentos() {
+        return estadisticas.getReintentos();
+    }
+
+    @Override
+    public double getBloqueoCamareroP99Ms() {
+        return estadisticas.getBloqueoCamarero().percentilMs(99);
+    }
+
+    @Override
+    public void reiniciarHistogramas() {
+        estadisticas.getEsperaCola().reiniciar();
+        estadisticas.getEsperaPedido().reiniciar();
+        estadisticas.getPreparacion().reiniciar();
+        estadisticas.getBloqueoCamarero().reiniciar();
+        for (Bebida b : Bebida.values()) {
+            estadisticas.getEsperaPedido(b).reiniciar();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Interfaz JMX de las métricas de la cafetería (visible en JConsole o VisualVM
+ * bajo com.example.javafx_cafetera). Las latencias se expresan en milisegundos.
+ */
+public interface MetricasCafeteriaMBean {
+    long getLlegadas();
+
+    long getServidos();
+
+    long getAbandonos();
+
+    long getPedidosPreparados();
+
+    double getServidosPorSegundo();
+
+    double getTamanoMedioLote();
+
+    long getRobos();
+
+    long getCancelados();
+
+    double getFraccionTrabajoPerdido();
+
+    double getCamarerosMedios();
+
+    double getBaristasMedios();
+
+    double getEsperaColaP50Ms();
+
+    double getEsperaColaP99Ms();
+
+    double getEsperaColaP999Ms();
+
+    double getEsperaPedidoP50Ms();
+
+    double getEsperaPedidoP99Ms();
+
+    double getEsperaPedidoP999Ms();
+
+    double getPreparacionP50Ms();
+
+    double getPreparacionP99Ms();
+
+    double getPreparacionP999Ms();
+
+    long getBloqueos();
+
+    long getPedidosRechazados();
+
+    long getReintentos();
+
+    double getBloqueoCamareroP99Ms();
+
+    /**
+     * Vacía los histogramas de latencia (los contadores se mantienen).
+     */
+    void reiniciarHistogramas();
+}
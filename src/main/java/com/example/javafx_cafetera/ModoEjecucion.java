@@ -0,0 +1,37 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Modo en el que se ejecutan los actores (clientes, camareros y baristas).
+ * Se elige al arrancar con la propiedad de sistema {@code cafeteria.modo}
+ * ({@code plataforma} o {@code virtual}).
+ */
+public enum ModoEjecucion {
+    /** Un hilo de plataforma por actor, como en la versión original. */
+    PLATAFORMA,
+    /** Un hilo virtual por actor; permite cientos de miles de clientes esperando a la vez. */
+    VIRTUAL;
+
+    public static final String PROPIEDAD = "cafeteria.modo";
+
+    /**
+     * Crea (sin arrancar) el hilo de un actor, con el nombre del actor.
+     */
+    public Thread crearHilo(String nombre, Runnable actor) {
+        Thread.Builder constructor = this == VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+        return constructor.name(nombre).unstarted(actor);
+    }
+
+    /**
+     * Obtiene el modo configurado en la propiedad de sistema, o PLATAFORMA si no hay ninguno.
+     */
+    public static ModoEjecucion porDefecto() {
+        return desdeTexto(System.getProperty(PROPIEDAD, "plataforma"));
+    }
+
+    /**
+     * Convierte un texto ("plataforma" o "virtual") en un modo de ejecución.
+     */
+    public static ModoEjecucion desdeTexto(String texto) {
+        return valueOf(texto.trim().toUpperCase());
+    }
+}
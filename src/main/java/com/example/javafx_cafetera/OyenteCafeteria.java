@@ -0,0 +1,46 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Observador de la simulación. La cafetería no conoce JavaFX: la interfaz gráfica
+ * (CafeteriaController) es solo un suscriptor más, y sin suscriptores la simulación
+ * se ejecuta sin ningún coste de presentación.
+ * Los métodos se invocan desde los hilos de los actores, no desde el hilo de JavaFX.
+ * El estado visible no se empuja: quien lo necesite lo consulta con
+ * {@link Cafeteria#tomarInstantaneaSiModificada()} a su propio ritmo.
+ */
+public interface OyenteCafeteria {
+
+    /**
+     * Se invoca con cada mensaje del registro de eventos.
+     * La marca de tiempo llega sin formatear para no pagar ese coste en el hilo del actor.
+     */
+    default void alRegistrar(long instanteMs, String mensaje) {
+    }
+
+    /**
+     * Se invoca en cada paso del ciclo de vida de un cliente.
+     * @param idEmpleado Camarero o barista que interviene, o 0 si no interviene ninguno.
+     */
+    default void alEvento(TipoEvento tipo, int idCliente, int idEmpleado) {
+    }
+
+    /**
+     * Se invoca cuando un cliente entra en la cafetería.
+     * Junto con {@link #alSalirCliente} permite mantener la lista de clientes con cambios
+     * incrementales, sin copiarla entera.
+     */
+    default void alEntrarCliente(Cliente cliente) {
+    }
+
+    /**
+     * Se invoca cuando un cliente se marcha y deja de estar en el registro.
+     */
+    default void alSalirCliente(Cliente cliente) {
+    }
+
+    /**
+     * Se invoca cuando la simulación se ha detenido por completo.
+     */
+    default void alFinalizarSimulacion() {
+    }
+}
@@ -1,23 +1,61 @@
 package com.example.javafx_cafetera;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Representa un pedido realizado por un Cliente.
- * Contiene el cliente asociado y el identificador de la bebida.
+ * Contiene el cliente asociado, la bebida de la carta y el future con el que
+ * el cliente espera su desenlace.
  */
 public class Pedido {
     private final Cliente cliente;
-    private final String bebida;
+    private final Bebida bebida;
+    // Compartido con el cliente: quien lo completa primero decide cómo acaba la espera
+    private final CompletableFuture<DesenlacePedido> desenlace;
+
+    // Marcas de tiempo (System.nanoTime) para medir las esperas por etapa
+    private long instanteEncoladoNs;
+    private long inicioPreparacionNs;
 
-    public Pedido(Cliente cliente, String bebida) {
+    public Pedido(Cliente cliente, Bebida bebida) {
         this.cliente = cliente;
         this.bebida = bebida;
+        this.desenlace = cliente.getEspera();
     }
 
     public Cliente getCliente() {
         return cliente;
     }
 
-    public String getBebida() {
+    public Bebida getBebida() {
         return bebida;
     }
+
+    public CompletableFuture<DesenlacePedido> getDesenlace() {
+        return desenlace;
+    }
+
+    /**
+     * Completa la espera del cliente con el desenlace indicado.
+     * @return false si la espera ya había terminado (por ejemplo, el cliente se quedó sin paciencia).
+     */
+    public boolean finalizar(DesenlacePedido resultado) {
+        return desenlace.complete(resultado);
+    }
+
+    public long getInstanteEncoladoNs() {
+        return instanteEncoladoNs;
+    }
+
+    void setInstanteEncoladoNs(long instanteEncoladoNs) {
+        this.instanteEncoladoNs = instanteEncoladoNs;
+    }
+
+    public long getInicioPreparacionNs() {
+        return inicioPreparacionNs;
+    }
+
+    void setInicioPreparacionNs(long inicioPreparacionNs) {
+        this.inicioPreparacionNs = inicioPreparacionNs;
+    }
 }
@@ -0,0 +1,59 @@
+package com.example.javafx_cafetera;
+
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Orden en el que los baristas sacan los pedidos pendientes.
+ * Cada planificador da una clave (en nanosegundos) a partir de la bebida y del instante en que
+ * el pedido entró en la cola; sale primero el de menor clave y, en caso de empate, el más antiguo.
+ */
+public enum PlanificadorPedidos {
+    /** Por orden de llegada, como la cola original. */
+    FIFO,
+    /** Primero la bebida más rápida de preparar (shortest-job-first). Puede dejar esperando a las lentas. */
+    SJF,
+    /**
+     * SJF con envejecimiento: la prioridad es la preparación esperada menos lo que lleva esperando.
+     * Como todos envejecen al mismo ritmo, el orden equivale a la clave fija preparación + instante de entrada.
+     */
+    ENVEJECIMIENTO;
+
+    // Cuánto compensa esperar: 1 ms de espera equivale a 1 ms menos de preparación
+    private static final long FACTOR_ENVEJECIMIENTO = 1;
+
+    /**
+     * Clave de ordenación de un pedido.
+     * @param instanteEncoladoNs Momento en que entró en la cola, en nanosegundos (reloj real o simulado).
+     */
+    public long clave(Bebida bebida, long instanteEncoladoNs) {
+        long preparacionNs = bebida.getPreparacionMediaMs() * 1_000_000L;
+        return switch (this) {
+            case FIFO -> 0;
+            case SJF -> preparacionNs;
+            case ENVEJECIMIENTO -> preparacionNs + FACTOR_ENVEJECIMIENTO * instanteEncoladoNs;
+        };
+    }
+
+    /**
+     * Crea la cola de pedidos pendientes con la capacidad indicada.
+     * FIFO usa la LinkedBlockingQueue de siempre; los demás, una cola de prioridad acotada.
+     */
+    public BlockingQueue<Pedido> crearCola(int capacidad) {
+        if (this == FIFO) {
+            return new LinkedBlockingQueue<>(capacidad);
+        }
+        Comparator<Pedido> orden = Comparator
+                .comparingLong((Pedido p) -> clave(p.getBebida(), p.getInstanteEncoladoNs()))
+                .thenComparingLong(Pedido::getInstanteEncoladoNs);
+        return new ColaPrioridadAcotada<>(capacidad, orden);
+    }
+
+    /**
+     * Convierte un texto ("fifo", "sjf" o "envejecimiento") en un planificador.
+     */
+    public static PlanificadorPedidos desdeTexto(String texto) {
+        return valueOf(texto.trim().toUpperCase());
+    }
+}
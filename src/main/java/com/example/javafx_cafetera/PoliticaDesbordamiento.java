@@ -0,0 +1,21 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Qué hacer cuando un camarero intenta añadir un pedido y la cola de pedidos
+ * pendientes ya está llena (MAX_PEDIDOS).
+ */
+public enum PoliticaDesbordamiento {
+    /** El camarero espera hasta que haya hueco: la presión se traslada a la cola de clientes. */
+    BLOQUEAR,
+    /** El pedido se descarta y el cliente se marcha sin café. */
+    DESCARTAR,
+    /** Se avisa al cliente de que lo intente más tarde y vuelve al final de la cola. */
+    REINTENTAR;
+
+    /**
+     * Convierte un texto ("bloquear", "descartar" o "reintentar") en una política.
+     */
+    public static PoliticaDesbordamiento desdeTexto(String texto) {
+        return valueOf(texto.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Cómo llegan los clientes a la cafetería.
+ */
+public enum ProcesoLlegadas {
+    /** Los numClientes iniciales, separados por el desfase de llegada (la simulación original). */
+    CERRADO,
+    /** Lazo abierto: llegadas de Poisson a una tasa fija, sin depender de cómo va la cafetería. */
+    POISSON,
+    /** Lazo abierto con ráfagas (MMPP de dos fases): ratos tranquilos y picos de varias veces la tasa media. */
+    RAFAGAS,
+    /** Lazo abierto que reproduce los instantes de llegada de una traza grabada. */
+    TRAZA;
+
+    /**
+     * Convierte un texto ("cerrado", "poisson", "rafagas" o "traza") en un proceso de llegadas.
+     */
+    public static ProcesoLlegadas desdeTexto(String texto) {
+        return valueOf(texto.trim().toUpperCase().replace('Á', 'A'));
+    }
+
+    /**
+     * Si genera clientes a un ritmo propio en lugar de la tanda inicial.
+     */
+    public boolean esAbierto() {
+        return this != CERRADO;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.javafx_cafetera;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Punto de control de una cafetería en marcha: plantilla, estadísticas acumuladas y los clientes
+ * que seguían esperando, con su paciencia y el tiempo que ya llevaban esperando.
+ * Se captura en memoria sin parar a los actores ({@link Cafeteria#capturarPuntoControl()}) y se
+ * escribe después en otro hilo. Al reanudar, cada cliente vuelve a su cola con la misma paciencia
+ * restante; las tareas que estaban a medias (un pedido que se estaba tomando, un lote en
+ * preparación) se repiten desde el principio.
+ * <p>
+ * Formato (DataOutput comprimido con GZIP):
+ * <pre>
+ *   int mágico | int versión | long capturadoMs | long simuladoMs | UTF nombre | int camareros | int baristas
+ *   | int clientesDinámicos | estadísticas | int n | n × (UTF nombre | long pacienciaMs | long esperadoMs | UTF bebida)
+ * </pre>
+ * simuladoMs, pacienciaMs y esperadoMs van en milisegundos de simulación, así que se puede
+ * reanudar con otra escala de tiempo. simuladoMs es el tiempo total de la simulación
+ * (incluidas las ejecuciones anteriores a otras reanudaciones).
+ * Las bebidas van por nombre, no por posición en el menú.
+ * esperadoMs -1 indica un cliente que aún no había llegado a la cola; bebida vacía, que aún no había pedido.
+ */
+public record PuntoControl(String nombre, long capturadoMs, long simuladoMs, int numCamareros, int numBaristas,
+                           int clientesDinamicos, EstadisticasSimulacion estadisticas, List<ClienteGuardado> clientes) {
+    static final int MAGICO = 0xCAFE_0002;
+    static final int VERSION = 3;
+
+    /**
+     * Un cliente que seguía en la cafetería. Sin bebida está en la cola de clientes; con bebida,
+     * su pedido está pendiente de preparar.
+     */
+    public record ClienteGuardado(String nombre, long pacienciaMs, long esperadoMs, Bebida bebida) {
+        public boolean haLlegado() {
+            return esperadoMs >= 0;
+        }
+    }
+
+    /**
+     * Escribe el punto de control. Primero en un fichero temporal y luego lo renombra, para que
+     * un cierre a mitad de escritura nunca deje un punto de control corrupto en la ruta.
+     */
+    public void escribir(Path ruta) throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temporal))))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeLong(capturadoMs);
+            salida.writeLong(simuladoMs);
+            salida.writeUTF(nombre);
+            salida.writeInt(numCamareros);
+            salida.writeInt(numBaristas);
+            salida.writeInt(clientesDinamicos);
+            estadisticas.escribir(salida);
+            salida.writeInt(clientes.size());
+            for (ClienteGuardado c : clientes) {
+                salida.writeUTF(c.nombre());
+                salida.writeLong(c.pacienciaMs());
+                salida.writeLong(c.esperadoMs());
+                salida.writeUTF(c.bebida() == null ? "" : c.bebida().name());
+            }
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lee un punto de control escrito con {@link #escribir(Path)}.
+     */
+    public static PuntoControl leer(Path ruta) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(ruta))))) {
+            if (entrada.readInt() != MAGICO) {
+                throw new IOException("No es un punto de control de la cafetería: " + ruta);
+            }
+            int version = entrada.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de punto de control no soportada: " + version);
+            }
+            long capturadoMs = entrada.readLong();
+            long simuladoMs = entrada.readLong();
+            String nombre = entrada.readUTF();
+            int numCamareros = entrada.readInt();
+            int numBaristas = entrada.readInt();
+            int clientesDinamicos = entrada.readInt();
+            EstadisticasSimulacion estadisticas = new EstadisticasSimulacion();
+            estadisticas.cargar(entrada);
+            int n = entrada.readInt();
+            List<ClienteGuardado> clientes = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                String nombreCliente = entrada.readUTF();
+                long pacienciaMs = entrada.readLong();
+                long esperadoMs = entrada.readLong();
+                String bebida = entrada.readUTF();
+                Bebida pedida;
+                try {
+                    pedida = bebida.isEmpty() ? null : Bebida.valueOf(bebida);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Bebida desconocida en el punto de control: " + bebida);
+                }
+                clientes.add(new ClienteGuardado(nombreCliente, pacienciaMs, esperadoMs, pedida));
+            }
+            return new PuntoControl(nombre, capturadoMs, simuladoMs, numCamareros, numBaristas, clientesDinamicos,
+                    estadisticas, List.copyOf(clientes));
+        }
+    }
+}
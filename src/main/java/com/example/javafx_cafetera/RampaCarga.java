@@ -0,0 +1,189 @@
+package com.example.javafx_cafetera;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Rampa de carga en lazo abierto: sube la tasa de llegadas escalón a escalón sobre una misma
+ * plantilla y busca el codo, la primera tasa a la que la cafetería deja de dar abasto.
+ * En un sistema sin paciencia la espera crecería sin límite a partir de ahí; aquí los clientes
+ * se cansan, así que el codo se ve como llegadas que ya no salen servidas o como una espera
+ * media muy por encima de la del primer escalón. Las dos se comparan con el primer escalón,
+ * porque incluso sin cola hay clientes que se cansan durante una preparación larga.
+ * La capacidad es lo que sirve el último escalón estable.
+ *
+ * Cada escalón es una ejecución nueva, por defecto con el motor de eventos discretos (una hora
+ * simulada en milisegundos); con --motor=hilos se usa la cafetería con hilos en tiempo real.
+ *
+ * Uso: RampaCarga [--llegadas=poisson|rafagas|traza] [--traza=ruta] [--tasa-inicial=0.1]
+ *                 [--tasa-final=1.5] [--paso=0.1] [--motor=eventos|hilos] [--segundos=N]
+ *                 [--camareros=N] [--baristas=N] [--capacidad-pedidos=N]
+ *                 [--politica=bloquear|descartar|reintentar] [--lote=K] [--menu=simple|variado]
+ *                 [--planificador=fifo|sjf|envejecimiento] [--tolerancia=0.05] [--factor-espera=5]
+ *                 [--semilla=N] [--salida=ruta.csv]
+ */
+public class RampaCarga {
+    // Por debajo de esta espera media no se considera que la espera se haya disparado
+    private static final double ESPERA_MINIMA_CODO_MS = 500;
+
+    private RampaCarga() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ConfiguracionSimulacion base = new ConfiguracionSimulacion();
+        base.setProcesoLlegadas(ProcesoLlegadas.POISSON);
+        double tasaInicial = 0.1;
+        double tasaFinal = 1.5;
+        double paso = 0.1;
+        boolean hilos = false;
+        Long segundos = null;
+        double tolerancia = 0.05;
+        double factorEspera = 5;
+        long semilla = System.nanoTime();
+        Path salida = null;
+
+        for (String arg : args) {
+            String[] partes = arg.split("=", 2);
+            String valor = partes.length > 1 ? partes[1] : "";
+            try {
+                switch (partes[0]) {
+                    case "--llegadas" -> base.setProcesoLlegadas(ProcesoLlegadas.desdeTexto(valor));
+                    case "--traza" -> base.setTrazaLlegadasMs(GeneradorLlegadas.cargarTraza(Path.of(valor)));
+                    case "--tasa-inicial" -> tasaInicial = Double.parseDouble(valor);
+                    case "--tasa-final" -> tasaFinal = Double.parseDouble(valor);
+                    case "--paso" -> paso = Double.parseDouble(valor);
+                    case "--motor" -> hilos = valor.equals("hilos");
+                    case "--segundos" -> segundos = Long.parseLong(valor);
+                    case "--camareros" -> base.setNumCamareros(Integer.parseInt(valor));
+                    case "--baristas" -> base.setNumBaristas(Integer.parseInt(valor));
+                    case "--capacidad-pedidos" -> base.setCapacidadPedidos(Integer.parseInt(valor));
+                    case "--politica" -> base.setPoliticaDesbordamiento(PoliticaDesbordamiento.desdeTexto(valor));
+                    case "--lote" -> base.setTamanoLote(Integer.parseInt(valor));
+                    case "--menu" -> base.setMenuVariado(valor.equals("variado"));
+                    case "--planificador" -> base.setPlanificador(PlanificadorPedidos.desdeTexto(valor));
+                    case "--tolerancia" -> tolerancia = Double.parseDouble(valor);
+                    case "--factor-espera" -> factorEspera = Double.parseDouble(valor);
+                    case "--semilla" -> semilla = Long.parseLong(valor);
+                    case "--salida" -> salida = Path.of(valor);
+                    default -> {
+                        System.err.println("Argumento desconocido: " + arg);
+                        System.exit(2);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Incluye los números mal escritos (NumberFormatException) y los valores fuera de rango
+                System.err.println("Valor no válido en " + arg + ": " + e.getMessage());
+                System.exit(2);
+            }
+        }
+        if (!base.getProcesoLlegadas().esAbierto() || paso <= 0 || tasaInicial <= 0 || tasaFinal < tasaInicial) {
+            System.err.println("La rampa necesita llegadas abiertas y 0 < tasa-inicial <= tasa-final, con paso > 0.");
+            System.exit(2);
+        }
+        long duracionMs = (segundos != null ? segundos : hilos ? 30 : 3600) * 1000;
+
+        System.out.printf(Locale.ROOT, "Rampa %s de %.2f a %.2f clientes/s (paso %.2f), %d camareros, %d baristas, "
+                        + "%d s por escalón con el motor de %s, semilla %d%n",
+                base.getProcesoLlegadas(), tasaInicial, tasaFinal, paso, base.getNumCamareros(), base.getNumBaristas(),
+                duracionMs / 1000, hilos ? "hilos" : "eventos", semilla);
+        System.out.println("  tasa  llegadas/s  servidos/s  perdidos  espera media  cola p99  pedido p99");
+
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        List<Escalon> escalones = new ArrayList<>();
+        Escalon codo = null;
+        double esperaBase = 0;
+        double perdidosBase = 0;
+        double maximoServidos = 0;
+        int pasos = (int) Math.round((tasaFinal - tasaInicial) / paso);
+        for (int i = 0; i <= pasos; i++) {
+            ConfiguracionSimulacion configuracion = new ConfiguracionSimulacion(base);
+            configuracion.setTasaLlegadas(tasaInicial + i * paso);
+            configuracion.setSemilla(raiz.nextLong());
+            Escalon escalon = hilos ? ejecutarConHilos(configuracion, duracionMs) : ejecutarConEventos(configuracion, duracionMs);
+            escalones.add(escalon);
+            System.out.printf(Locale.ROOT, "%6.2f  %10.3f  %10.3f  %7.1f %%  %9.0f ms  %5.0f ms  %7.0f ms%n",
+                    escalon.tasa(), escalon.llegadasPorSegundo(), escalon.servidosPorSegundo(),
+                    100 * escalon.fraccionPerdidos(), escalon.esperaMediaMs(), escalon.esperaColaP99Ms(),
+                    escalon.esperaPedidoP99Ms());
+
+            maximoServidos = Math.max(maximoServidos, escalon.servidosPorSegundo());
+            if (i == 0) {
+                esperaBase = Math.max(escalon.esperaMediaMs(), ESPERA_MINIMA_CODO_MS);
+                perdidosBase = escalon.fraccionPerdidos();
+            } else if (codo == null && (escalon.fraccionPerdidos() > perdidosBase + tolerancia
+                    || escalon.esperaMediaMs() > factorEspera * esperaBase)) {
+                codo = escalon;
+            }
+        }
+
+        if (salida != null) {
+            escribirCsv(salida, escalones, codo);
+            System.out.println("Resultados en " + salida);
+        }
+        if (codo == null) {
+            System.out.printf(Locale.ROOT, "Sin codo hasta %.2f clientes/s: la plantilla aguanta toda la rampa.%n",
+                    escalones.get(escalones.size() - 1).tasa());
+        } else if (codo == escalones.get(0)) {
+            System.out.println("El primer escalón ya está saturado: empieza la rampa más abajo.");
+        } else {
+            Escalon estable = escalones.get(escalones.indexOf(codo) - 1);
+            System.out.printf(Locale.ROOT, "Codo en %.2f clientes/s (%.1f %% perdidos, espera media %.0f ms). "
+                            + "Capacidad: unos %.2f clientes/s servidos (máximo de la rampa %.2f).%n",
+                    codo.tasa(), 100 * codo.fraccionPerdidos(), codo.esperaMediaMs(), estable.servidosPorSegundo(),
+                    maximoServidos);
+        }
+    }
+
+    private static Escalon ejecutarConEventos(ConfiguracionSimulacion configuracion, long duracionMs) {
+        SimulacionEventosDiscretos simulacion = new SimulacionEventosDiscretos(configuracion);
+        EstadisticasSimulacion estadisticas = simulacion.ejecutar(duracionMs);
+        return Escalon.de(configuracion.getTasaLlegadas(), estadisticas, simulacion.getReloj() / 1000.0);
+    }
+
+    private static Escalon ejecutarConHilos(ConfiguracionSimulacion configuracion, long duracionMs) throws InterruptedException {
+        Cafeteria cafeteria = new Cafeteria(configuracion);
+        cafeteria.iniciarSimulacion();
+        // La duración es de simulación, como en el motor de eventos
+        Thread.sleep(Math.max(1, Math.round(duracionMs * configuracion.getEscalaTiempo())));
+        cafeteria.detenerSimulacion();
+        return Escalon.de(configuracion.getTasaLlegadas(), cafeteria.getEstadisticas(), cafeteria.getSegundosSimulados());
+    }
+
+    private static void escribirCsv(Path ruta, List<Escalon> escalones, Escalon codo) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(ruta, StandardCharsets.UTF_8))) {
+            out.println("tasa,llegadas_por_s,servidos_por_s,fraccion_perdidos,espera_media_ms,espera_cola_p99_ms,"
+                    + "espera_pedido_p99_ms,codo");
+            for (Escalon e : escalones) {
+                out.printf(Locale.ROOT, "%.4f,%.4f,%.4f,%.5f,%.1f,%.1f,%.1f,%b%n",
+                        e.tasa(), e.llegadasPorSegundo(), e.servidosPorSegundo(), e.fraccionPerdidos(),
+                        e.esperaMediaMs(), e.esperaColaP99Ms(), e.esperaPedidoP99Ms(), e == codo);
+            }
+        }
+    }
+
+    /**
+     * Resultado de un escalón de la rampa. Los perdidos son las llegadas que no salieron servidas
+     * (abandonos y pedidos rechazados); la espera media suma la de la cola y la del pedido.
+     */
+    private record Escalon(double tasa, double llegadasPorSegundo, double servidosPorSegundo, double fraccionPerdidos,
+                           double esperaMediaMs, double esperaColaP99Ms, double esperaPedidoP99Ms) {
+        static Escalon de(double tasa, EstadisticasSimulacion e, double segundos) {
+            long llegadas = e.getLlegadas();
+            double perdidos = llegadas == 0 ? 0 : (double) (e.getAbandonos() + e.getPedidosRechazados()) / llegadas;
+            return new Escalon(tasa, llegadas / segundos, e.getServidos() / segundos, perdidos,
+                    mediaMs(e.getEsperaCola()) + mediaMs(e.getEsperaPedido()),
+                    e.getEsperaCola().percentilMs(99), e.getEsperaPedido().percentilMs(99));
+        }
+
+        private static double mediaMs(HistogramaLatencia h) {
+            return h.getTotal() == 0 ? 0 : h.getSuma() / 1e6 / h.getTotal();
+        }
+    }
+}
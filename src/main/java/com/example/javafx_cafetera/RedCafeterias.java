@@ -0,0 +1,110 @@
+package com.example.javafx_cafetera;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Varias cafeterías (sucursales) independientes en la misma JVM.
+ * Cada sucursal tiene sus propias colas, su plantilla y su ejecutor, así que no hay una cola
+ * global que todos compartan. Los clientes llegan a la red y el enrutador decide a qué
+ * sucursal va cada uno.
+ */
+public class RedCafeterias {
+    private final List<Cafeteria> sucursales;
+    private final EnrutadorClientes enrutador;
+    private final int numClientes;
+    private final long desfaseLlegadaMs;
+    private final double escalaTiempo;
+    private final AtomicLong turno = new AtomicLong();
+    // Solo lo usa el hilo que genera las llegadas
+    private final SplittableRandom aleatorio;
+
+    /**
+     * Crea las sucursales según la configuración: cada una con numCamareros y numBaristas,
+     * y numClientes en total para toda la red.
+     */
+    public RedCafeterias(ConfiguracionSimulacion configuracion) {
+        this.enrutador = configuracion.getEnrutador();
+        this.numClientes = configuracion.getNumClientes();
+        this.desfaseLlegadaMs = configuracion.getDesfaseLlegadaMs();
+        this.escalaTiempo = configuracion.getEscalaTiempo();
+
+        // Las sucursales no generan clientes propios: todos entran por el enrutador.
+        // Cada una recibe su propia semilla, sacada de la del escenario, para no repetir flujos
+        SplittableRandom raiz = configuracion.crearAleatorio();
+        List<Cafeteria> lista = new ArrayList<>();
+        for (int i = 1; i <= configuracion.getNumSucursales(); i++) {
+            ConfiguracionSimulacion porSucursal = new ConfiguracionSimulacion(configuracion);
+            porSucursal.setNumClientes(0);
+            porSucursal.setProcesoLlegadas(ProcesoLlegadas.CERRADO);
+            porSucursal.setSemilla(raiz.nextLong());
+            lista.add(new Cafeteria(porSucursal, "sucursal-" + i));
+        }
+        this.aleatorio = raiz.split();
+        this.sucursales = Collections.unmodifiableList(lista);
+    }
+
+    public List<Cafeteria> getSucursales() {
+        return sucursales;
+    }
+
+    /**
+     * Arranca todas las sucursales y hace llegar los clientes, repartidos por el enrutador.
+     * Como {@link Cafeteria#iniciarSimulacion()}, vuelve cuando han llegado todos.
+     */
+    public void iniciar() {
+        for (Cafeteria sucursal : sucursales) {
+            sucursal.iniciarSimulacion();
+        }
+        for (int i = 1; i <= numClientes; i++) {
+            int elegida = enrutador.elegir(sucursales, turno, aleatorio);
+            sucursales.get(elegida).admitirCliente("Cliente-" + i);
+            if (desfaseLlegadaMs > 0) {
+                try {
+                    // El desfase es de simulación, como en Cafeteria
+                    TimeUnit.NANOSECONDS.sleep(Math.round(TimeUnit.MILLISECONDS.toNanos(desfaseLlegadaMs) * escalaTiempo));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Detiene todas las sucursales a la vez y espera a que hayan terminado todas.
+     */
+    public void detener() {
+        List<Thread> paradas = new ArrayList<>();
+        for (Cafeteria sucursal : sucursales) {
+            paradas.add(Thread.ofVirtual().name("Parada-" + sucursal.getNombre()).start(new Runnable() {
+                @Override
+                public void run() {
+                    sucursal.detenerSimulacion();
+                }
+            }));
+        }
+        try {
+            for (Thread parada : paradas) {
+                parada.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Estadísticas de toda la red: la suma de las de cada sucursal.
+     */
+    public EstadisticasSimulacion getEstadisticasAgregadas() {
+        EstadisticasSimulacion agregadas = new EstadisticasSimulacion();
+        for (Cafeteria sucursal : sucursales) {
+            agregadas.acumular(sucursal.getEstadisticas());
+        }
+        return agregadas;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.javafx_cafetera;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clientes presentes en la cafetería.
+ * Solo guarda a los que siguen dentro: cuando un cliente se marcha se quita del mapa y su
+ * estancia se suma a unos contadores agregados, así que la memoria depende de cuántos
+ * clientes hay a la vez y no de cuántos han pasado en toda la simulación.
+ */
+public class RegistroClientes {
+    // Cliente → instante de entrada (System.nanoTime)
+    private final ConcurrentHashMap<Cliente, Long> presentes = new ConcurrentHashMap<>();
+    private final LongAdder admitidos = new LongAdder();
+    private final LongAdder finalizados = new LongAdder();
+    private final LongAdder sumaEstanciaNs = new LongAdder();
+
+    /**
+     * Crea un registro sin clientes.
+     */
+    public RegistroClientes() {
+    }
+
+    /**
+     * Registra la entrada de un cliente.
+     */
+    public void alta(Cliente cliente) {
+        presentes.put(cliente, System.nanoTime());
+        admitidos.increment();
+    }
+
+    /**
+     * Quita a un cliente que se marcha y acumula su estancia.
+     * @return false si el cliente ya no estaba (por ejemplo, tras limpiar el registro).
+     */
+    public boolean baja(Cliente cliente) {
+        Long entrada = presentes.remove(cliente);
+        if (entrada == null) {
+            return false;
+        }
+        finalizados.increment();
+        sumaEstanciaNs.add(System.nanoTime() - entrada);
+        return true;
+    }
+
+    public int getPresentes() {
+        return presentes.size();
+    }
+
+    public long getAdmitidos() {
+        return admitidos.sum();
+    }
+
+    public long getFinalizados() {
+        return finalizados.sum();
+    }
+
+    /**
+     * Tiempo medio que pasaron en la cafetería los clientes que ya se fueron, en milisegundos.
+     */
+    public double getEstanciaMediaMs() {
+        long n = finalizados.sum();
+        return n == 0 ? 0 : sumaEstanciaNs.sum() / (double) n / 1e6;
+    }
+
+    /**
+     * Copia de los clientes presentes (sin orden), para quien necesite recorrerlos.
+     */
+    public List<Cliente> copiaPresentes() {
+        return List.copyOf(presentes.keySet());
+    }
+
+    /**
+     * Olvida a los clientes presentes (al detener la simulación); los contadores se conservan.
+     */
+    public void limpiar() {
+        presentes.clear();
+    }
+}
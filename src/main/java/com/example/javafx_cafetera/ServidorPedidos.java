@@ -0,0 +1,323 @@
+package com.example.javafx_cafetera;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor HTTP local de pedidos, para cargar la cafetería desde fuera (wrk, hey, curl...).
+ * Cada POST crea un cliente que entra directamente en la cola y recorre el flujo normal
+ * cola → Camarero → colaPedidosPendientes → Barista. Cada petición se atiende en un hilo
+ * virtual, así que una consulta que espera el desenlace (long-poll) no ocupa un hilo de plataforma.
+ * <pre>
+ *   POST /pedidos[?esperar=ms]         crea un pedido; con esperar, responde al conocer su desenlace (o al agotar la espera)
+ *   GET  /pedidos/{id}[?esperar=ms]    estado del pedido; con esperar, long-poll hasta el desenlace
+ *   GET  /estadisticas                 contadores de la cafetería, latencia de extremo a extremo (tiempo real)
+ *                                      y ritmos y esperas de la cafetería (tiempo de simulación)
+ * </pre>
+ * Las respuestas son JSON. Un pedido con desenlace responde 200; uno aún en curso, 202.
+ * Por ejemplo, con un script de wrk que haga POST: wrk -t4 -c64 -d30s -s post.lua "http://127.0.0.1:8080/pedidos?esperar=60000"
+ *
+ * Uso: ServidorPedidos [--puerto=8080] [--escala=0.001] [--camareros=N] [--baristas=N] [--capacidad-pedidos=N]
+ *                      [--politica=bloquear|descartar|reintentar] [--lote=K] [--menu=simple|variado]
+ *                      [--planificador=fifo|sjf|envejecimiento] [--flexible] [--autoescalar] [--semilla=N]
+ */
+public class ServidorPedidos {
+    // Pedidos terminados que se siguen pudiendo consultar; los más antiguos se olvidan
+    private static final int RETENCION_TERMINADOS = 10_000;
+    // Límite de cualquier long-poll, para no retener conexiones indefinidamente
+    private static final long ESPERA_MAXIMA_MS = 120_000;
+
+    private final Cafeteria cafeteria;
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<Integer, PedidoHttp> pedidos = new ConcurrentHashMap<>();
+    private final Queue<Integer> terminados = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numTerminados = new AtomicInteger();
+    private final AtomicInteger contadorPedidos = new AtomicInteger();
+
+    // Latencia de extremo a extremo: desde el POST hasta que el cliente conoce su desenlace
+    private final HistogramaLatencia latencia = new HistogramaLatencia();
+    private final LongAdder peticiones = new LongAdder();
+    private final LongAdder completados = new LongAdder();
+    private final long inicioNs = System.nanoTime();
+
+    /**
+     * Crea el servidor sobre una cafetería ya iniciada, escuchando solo en la interfaz local.
+     * @param puerto 0 para que el sistema elija uno libre (ver {@link #getPuerto()}).
+     */
+    public ServidorPedidos(Cafeteria cafeteria, int puerto) throws IOException {
+        this.cafeteria = cafeteria;
+        this.servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", puerto), 0);
+        servidor.setExecutor(hilos);
+        servidor.createContext("/pedidos", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange intercambio) throws IOException {
+                atenderPedidos(intercambio);
+            }
+        });
+        servidor.createContext("/estadisticas", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange intercambio) throws IOException {
+                atenderEstadisticas(intercambio);
+            }
+        });
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Deja de aceptar peticiones (esperando como mucho un segundo a las que están en curso).
+     */
+    public void detener() {
+        servidor.stop(1);
+        hilos.shutdownNow();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    private void atenderPedidos(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            peticiones.increment();
+            URI uri = intercambio.getRequestURI();
+            String ruta = uri.getPath();
+            Map<String, String> parametros = parametros(uri.getRawQuery());
+            long esperaMs = Math.min(ESPERA_MAXIMA_MS, Long.parseLong(parametros.getOrDefault("esperar", "0")));
+            String metodo = intercambio.getRequestMethod();
+
+            if (ruta.equals("/pedidos") || ruta.equals("/pedidos/")) {
+                if (!metodo.equals("POST")) {
+                    responder(intercambio, 405, "{\"error\":\"usa POST para crear un pedido\"}");
+                    return;
+                }
+                if (!cafeteria.estaEnEjecucion()) {
+                    responder(intercambio, 503, "{\"error\":\"la cafetería no está abierta\"}");
+                    return;
+                }
+                PedidoHttp pedido = crearPedido();
+                intercambio.getResponseHeaders().set("Location", "/pedidos/" + pedido.id());
+                responderPedido(intercambio, pedido, esperaMs);
+                return;
+            }
+
+            if (!metodo.equals("GET")) {
+                responder(intercambio, 405, "{\"error\":\"usa GET para consultar un pedido\"}");
+                return;
+            }
+            PedidoHttp pedido;
+            try {
+                pedido = pedidos.get(Integer.parseInt(ruta.substring("/pedidos/".length())));
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                pedido = null;
+            }
+            if (pedido == null) {
+                responder(intercambio, 404, "{\"error\":\"pedido desconocido\"}");
+                return;
+            }
+            responderPedido(intercambio, pedido, esperaMs);
+        } catch (NumberFormatException e) {
+            responder(intercambio, 400, "{\"error\":\"parámetro no numérico\"}");
+        }
+    }
+
+    private PedidoHttp crearPedido() {
+        int id = contadorPedidos.incrementAndGet();
+        Cliente cliente = cafeteria.admitirCliente("Cliente-HTTP-" + id, true);
+        PedidoHttp pedido = new PedidoHttp(id, cliente, System.nanoTime());
+        pedidos.put(id, pedido);
+        cliente.getDesenlaceFinal().whenComplete((estado, error) -> terminar(pedido));
+        return pedido;
+    }
+
+    /**
+     * Registra la latencia de un pedido terminado y olvida los terminados más antiguos.
+     */
+    private void terminar(PedidoHttp pedido) {
+        latencia.registrar(System.nanoTime() - pedido.creadoNs());
+        completados.increment();
+        terminados.add(pedido.id());
+        if (numTerminados.incrementAndGet() > RETENCION_TERMINADOS) {
+            Integer antiguo = terminados.poll();
+            if (antiguo != null) {
+                pedidos.remove(antiguo);
+                numTerminados.decrementAndGet();
+            }
+        }
+    }
+
+    private void responderPedido(HttpExchange intercambio, PedidoHttp pedido, long esperaMs) throws IOException {
+        CompletableFuture<EstadoCliente> desenlace = pedido.cliente().getDesenlaceFinal();
+        if (esperaMs > 0 && !desenlace.isDone()) {
+            try {
+                desenlace.get(esperaMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Sigue en curso: se responde con el estado actual
+            } catch (ExecutionException e) {
+                // El desenlace del cliente ha fallado: se informa al cliente HTTP en vez de cortar la conexión
+                responder(intercambio, 500, String.format(Locale.ROOT, "{\"id\":%d,\"error\":\"%s\"}",
+                        pedido.id(), escaparJson(String.valueOf(e.getCause()))));
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        boolean terminado = desenlace.isDone();
+        EstadoCliente estado = terminado ? desenlace.getNow(null) : pedido.cliente().getEstado();
+        String cuerpo = String.format(Locale.ROOT,
+                "{\"id\":%d,\"cliente\":\"%s\",\"estado\":\"%s\",\"texto\":\"%s\",\"terminado\":%b,\"servido\":%b,\"milisegundos\":%.3f}",
+                pedido.id(), pedido.cliente().getNombre(), estado.name(), estado.getTexto(), terminado,
+                estado == EstadoCliente.ATENDIDO, (System.nanoTime() - pedido.creadoNs()) / 1e6);
+        responder(intercambio, terminado ? 200 : 202, cuerpo);
+    }
+
+    private void atenderEstadisticas(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            peticiones.increment();
+            if (!intercambio.getRequestMethod().equals("GET")) {
+                responder(intercambio, 405, "{\"error\":\"usa GET\"}");
+                return;
+            }
+            EstadisticasSimulacion e = cafeteria.getEstadisticas();
+            // Lo que ve el cliente HTTP va en tiempo real; lo de la cafetería, en tiempo de simulación
+            double segundos = (System.nanoTime() - inicioNs) / 1e9;
+            double segundosSimulados = cafeteria.getSegundosSimulados();
+            String cuerpo = String.format(Locale.ROOT,
+                    "{\"segundos\":%.3f,\"peticiones\":%d,\"pedidosCreados\":%d,\"pedidosTerminados\":%d,"
+                            + "\"terminadosPorSegundo\":%.3f,\"latenciaMs\":{\"p50\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f},"
+                            + "\"escala\":%s,\"segundosSimulados\":%.3f,\"servidosPorSegundoSimulado\":%.3f,"
+                            + "\"esperaColaSimuladaMs\":{\"p50\":%.3f,\"p99\":%.3f},"
+                            + "\"llegadas\":%d,\"servidos\":%d,\"abandonos\":%d,\"rechazados\":%d,"
+                            + "\"clientesPresentes\":%d,\"clientesEsperando\":%d,\"pedidosPendientes\":%d,"
+                            + "\"camareros\":%d,\"baristas\":%d}",
+                    segundos, peticiones.sum(), contadorPedidos.get(), completados.sum(), completados.sum() / segundos,
+                    latencia.percentilMs(50), latencia.percentilMs(99), latencia.percentilMs(99.9), latencia.getMaximo() / 1e6,
+                    cafeteria.getEscalaTiempo(), segundosSimulados, segundosSimulados > 0 ? e.getServidos() / segundosSimulados : 0,
+                    e.getEsperaCola().percentilMs(50), e.getEsperaCola().percentilMs(99),
+                    e.getLlegadas(), e.getServidos(), e.getAbandonos(), e.getPedidosRechazados(),
+                    cafeteria.getRegistroClientes().getPresentes(), cafeteria.getClientesEsperando(),
+                    cafeteria.getTamañoColaPedidos(), cafeteria.getNumCamareros(), cafeteria.getNumBaristas());
+            responder(intercambio, 200, cuerpo);
+        }
+    }
+
+    private static void responder(HttpExchange intercambio, int codigo, String json) throws IOException {
+        byte[] cuerpo = json.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    private static String escaparJson(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, String> parametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            String[] partes = par.split("=", 2);
+            parametros.put(partes[0], partes.length > 1 ? partes[1] : "");
+        }
+        return parametros;
+    }
+
+    /**
+     * Pedido recibido por HTTP: su número, el cliente que lo representa y cuándo llegó.
+     */
+    private record PedidoHttp(int id, Cliente cliente, long creadoNs) {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ConfiguracionSimulacion configuracion = new ConfiguracionSimulacion();
+        configuracion.setModo(ModoEjecucion.VIRTUAL);
+        configuracion.setNumClientes(0);
+        int puerto = 8080;
+
+        for (String arg : args) {
+            String[] partes = arg.split("=", 2);
+            String valor = partes.length > 1 ? partes[1] : "";
+            try {
+                switch (partes[0]) {
+                    case "--puerto" -> puerto = Integer.parseInt(valor);
+                    case "--escala" -> configuracion.setEscalaTiempo(Double.parseDouble(valor));
+                    case "--modo" -> configuracion.setModo(ModoEjecucion.desdeTexto(valor));
+                    case "--camareros" -> configuracion.setNumCamareros(Integer.parseInt(valor));
+                    case "--baristas" -> configuracion.setNumBaristas(Integer.parseInt(valor));
+                    case "--capacidad-pedidos" -> configuracion.setCapacidadPedidos(Integer.parseInt(valor));
+                    case "--politica" -> configuracion.setPoliticaDesbordamiento(PoliticaDesbordamiento.desdeTexto(valor));
+                    case "--lote" -> configuracion.setTamanoLote(Integer.parseInt(valor));
+                    case "--menu" -> configuracion.setMenuVariado(valor.equals("variado"));
+                    case "--planificador" -> configuracion.setPlanificador(PlanificadorPedidos.desdeTexto(valor));
+                    case "--flexible" -> configuracion.setPersonalFlexible(true);
+                    case "--autoescalar" -> configuracion.setAutoescalado(true);
+                    case "--semilla" -> configuracion.setSemilla(Long.parseLong(valor));
+                    default -> {
+                        System.err.println("Argumento desconocido: " + arg);
+                        System.exit(2);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Incluye los números mal escritos (NumberFormatException) y los valores fuera de rango
+                System.err.println("Valor no válido en " + arg + ": " + e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        Cafeteria cafeteria = new Cafeteria(configuracion);
+        cafeteria.iniciarSimulacion();
+        ServidorPedidos servidor = new ServidorPedidos(cafeteria, puerto);
+        servidor.iniciar();
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                servidor.detener();
+                cafeteria.detenerSimulacion();
+            }
+        }));
+        System.out.printf(Locale.ROOT, "Servidor de pedidos en http://127.0.0.1:%d (escala de tiempo %s, %d camareros, %d baristas). "
+                        + "Ctrl+C para parar.%n",
+                servidor.getPuerto(), configuracion.getEscalaTiempo(), configuracion.getNumCamareros(),
+                configuracion.getNumBaristas());
+        Thread.currentThread().join();
+    }
+}
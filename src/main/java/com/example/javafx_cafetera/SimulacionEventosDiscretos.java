@@ -0,0 +1,310 @@
+package com.example.javafx_cafetera;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor alternativo de simulación por eventos discretos.
+ * Recorre el mismo flujo Cliente → cola → Camarero → colaPedidosPendientes → Barista
+ * que la versión con hilos, pero sobre un reloj virtual: en lugar de dormir, cada actividad
+ * programa su evento de fin en una cola de prioridad ordenada por tiempo simulado.
+ * Así se pueden simular horas de turno en milisegundos, con las mismas estadísticas.
+ * Todo se ejecuta en un único hilo, por lo que no necesita sincronización.
+ */
+public class SimulacionEventosDiscretos {
+    // Mismos tiempos que Cliente, Camarero y Barista
+    private static final long RETARDO_LLEGADA_MIN_MS = 200;
+    private static final long RETARDO_LLEGADA_RANGO_MS = 1500;
+    private static final long PACIENCIA_MIN_MS = 5000;
+    private static final long PACIENCIA_RANGO_MS = 10000;
+    private static final long TOMA_PEDIDO_MS = 1000;
+
+    private final ConfiguracionSimulacion configuracion;
+    private final RandomGenerator aleatorio;
+    private final EstadisticasSimulacion estadisticas = new EstadisticasSimulacion();
+
+    // Cola de eventos futuros ordenada por tiempo (y por orden de creación en caso de empate)
+    private final PriorityQueue<Evento> eventos = new PriorityQueue<>(
+            Comparator.comparingLong(Evento::tiempo).thenComparingLong(Evento::orden));
+    private final Queue<ClienteSimulado> cola = new ArrayDeque<>();
+    private final Queue<ClienteSimulado> colaPedidosPendientes;
+    // Camareros bloqueados con un pedido en la mano (política BLOQUEAR), en orden de llegada
+    private final Queue<ClienteSimulado> pedidosBloqueados = new ArrayDeque<>();
+
+    private long reloj = 0;
+    private long contadorEventos = 0;
+    private long contadorPedidos = 0;
+    private int camarerosLibres;
+    private int baristasLibres;
+
+    /**
+     * Crea el motor con la semilla de la configuración (o una al azar si no tiene).
+     */
+    public SimulacionEventosDiscretos(ConfiguracionSimulacion configuracion) {
+        this(configuracion, configuracion.crearAleatorio());
+    }
+
+    /**
+     * Crea el motor con un generador aleatorio concreto (para repetir ejecuciones).
+     */
+    public SimulacionEventosDiscretos(ConfiguracionSimulacion configuracion, RandomGenerator aleatorio) {
+        this.configuracion = configuracion;
+        this.aleatorio = aleatorio;
+        this.colaPedidosPendientes = crearColaPedidos(configuracion.getPlanificador());
+        this.camarerosLibres = configuracion.getNumCamareros();
+        this.baristasLibres = configuracion.getNumBaristas();
+    }
+
+    /**
+     * Ejecuta la simulación hasta que no quedan eventos o se alcanza la duración indicada.
+     * @param duracionMs Tiempo simulado máximo en milisegundos.
+     * @return Las estadísticas acumuladas.
+     */
+    public EstadisticasSimulacion ejecutar(long duracionMs) {
+        if (configuracion.getProcesoLlegadas().esAbierto()) {
+            programarLlegadaAbierta(GeneradorLlegadas.desde(configuracion, aleatorio), duracionMs);
+        } else {
+            for (int i = 0; i < configuracion.getNumClientes(); i++) {
+                long creacion = i * configuracion.getDesfaseLlegadaMs();
+                long llegada = creacion + RETARDO_LLEGADA_MIN_MS + aleatorio.nextLong(RETARDO_LLEGADA_RANGO_MS);
+                ClienteSimulado cliente = new ClienteSimulado();
+                programar(llegada, () -> llegada(cliente));
+            }
+        }
+
+        while (!eventos.isEmpty() && eventos.peek().tiempo() <= duracionMs) {
+            Evento evento = eventos.poll();
+            reloj = evento.tiempo();
+            evento.accion().run();
+        }
+        if (!eventos.isEmpty()) {
+            // Se cortó por duración: el reloj avanza hasta el final del intervalo
+            reloj = duracionMs;
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Tiempo simulado actual en milisegundos.
+     */
+    public long getReloj() {
+        return reloj;
+    }
+
+    public EstadisticasSimulacion getEstadisticas() {
+        return estadisticas;
+    }
+
+    /**
+     * Como Cafeteria#generarLlegadas: crea el cliente en el instante que marca el generador
+     * (que luego tarda lo mismo en llegar a la cola) y programa la siguiente creación.
+     * Solo hay una creación pendiente a la vez, así que la cola de eventos no crece con la duración.
+     */
+    private void programarLlegadaAbierta(GeneradorLlegadas generador, long duracionMs) {
+        long creacion = generador.siguienteLlegadaMs();
+        if (creacion > duracionMs) {
+            return;
+        }
+        programar(creacion, () -> {
+            long llegada = reloj + RETARDO_LLEGADA_MIN_MS + aleatorio.nextLong(RETARDO_LLEGADA_RANGO_MS);
+            ClienteSimulado cliente = new ClienteSimulado();
+            programar(llegada, () -> llegada(cliente));
+            programarLlegadaAbierta(generador, duracionMs);
+        });
+    }
+
+    private void llegada(ClienteSimulado cliente) {
+        estadisticas.registrarLlegada();
+        long paciencia = PACIENCIA_MIN_MS + aleatorio.nextLong(PACIENCIA_RANGO_MS);
+        programar(reloj + paciencia, () -> pacienciaAgotada(cliente));
+        cliente.instanteEnCola = reloj;
+        cola.add(cliente);
+        asignarCamareros();
+    }
+
+    private void pacienciaAgotada(ClienteSimulado cliente) {
+        if (!cliente.servido && !cliente.seFue) {
+            // Se marcha; camareros y baristas lo descartarán al sacarlo de su cola
+            cliente.seFue = true;
+            estadisticas.registrarAbandono();
+        }
+    }
+
+    private void asignarCamareros() {
+        while (camarerosLibres > 0 && !cola.isEmpty()) {
+            ClienteSimulado cliente = cola.poll();
+            if (cliente.seFue) {
+                estadisticas.registrarCancelado();
+                continue;
+            }
+            estadisticas.getEsperaCola().registrar(msANs(reloj - cliente.instanteEnCola));
+            camarerosLibres--;
+            programar(reloj + TOMA_PEDIDO_MS, () -> finTomaPedido(cliente));
+        }
+    }
+
+    private void finTomaPedido(ClienteSimulado cliente) {
+        estadisticas.registrarTrabajo(msANs(TOMA_PEDIDO_MS), !cliente.seFue);
+        if (cliente.seFue) {
+            camarerosLibres++;
+            asignarCamareros();
+            return;
+        }
+        cliente.bebida = configuracion.isMenuVariado() ? Bebida.aleatoria(aleatorio) : Bebida.CAFE_SIMPLE;
+        cliente.instanteEnColaPedidos = reloj;
+        cliente.ordenPedido = contadorPedidos++;
+        if (colaPedidosPendientes.size() >= configuracion.getCapacidadPedidos()) {
+            switch (configuracion.getPoliticaDesbordamiento()) {
+                case BLOQUEAR -> {
+                    // El camarero no queda libre hasta que un barista haga hueco
+                    pedidosBloqueados.add(cliente);
+                    return;
+                }
+                case DESCARTAR -> {
+                    estadisticas.registrarPedidoRechazado();
+                    cliente.seFue = true;
+                }
+                case REINTENTAR -> {
+                    estadisticas.registrarReintento();
+                    if (!cliente.seFue) {
+                        cliente.instanteEnCola = reloj;
+                        cola.add(cliente);
+                    }
+                }
+            }
+            camarerosLibres++;
+            asignarCamareros();
+            return;
+        }
+        camarerosLibres++;
+        colaPedidosPendientes.add(cliente);
+        asignarBaristas();
+        asignarCamareros();
+    }
+
+    private void asignarBaristas() {
+        while (baristasLibres > 0 && !colaPedidosPendientes.isEmpty()) {
+            // Como Barista: toma el primer pedido y completa el lote con los de la misma bebida que haya
+            // en cualquier punto de la cola; los de otra bebida se quedan en su sitio
+            List<ClienteSimulado> lote = new ArrayList<>();
+            ClienteSimulado primero = colaPedidosPendientes.poll();
+            int huecos = 1;
+            if (primero.seFue) {
+                estadisticas.registrarCancelado();
+            } else {
+                anadirAlLote(primero, lote);
+                int maximoExtra = configuracion.getTamanoLote() - 1;
+                if (maximoExtra > 0) {
+                    int extra = 0;
+                    for (ClienteSimulado cliente : pedidosEnOrden()) {
+                        if (extra >= maximoExtra) {
+                            break;
+                        }
+                        if (cliente.bebida != primero.bebida) {
+                            continue;
+                        }
+                        colaPedidosPendientes.remove(cliente);
+                        huecos++;
+                        extra++;
+                        if (cliente.seFue) {
+                            estadisticas.registrarCancelado();
+                        } else {
+                            anadirAlLote(cliente, lote);
+                        }
+                    }
+                }
+            }
+            if (!lote.isEmpty()) {
+                baristasLibres--;
+                long duracion = Barista.duracionLote(lote.get(0).bebida.duracionAleatoriaMs(aleatorio), lote.size());
+                for (int i = 0; i < lote.size(); i++) {
+                    estadisticas.getPreparacion().registrar(msANs(duracion));
+                }
+                programar(reloj + duracion, () -> finPreparacion(lote, duracion));
+            }
+
+            // Se ha hecho hueco (también al descartar cancelados): los primeros camareros bloqueados entregan su pedido
+            for (int i = 0; i < huecos && !pedidosBloqueados.isEmpty(); i++) {
+                ClienteSimulado bloqueado = pedidosBloqueados.poll();
+                estadisticas.registrarBloqueo(msANs(reloj - bloqueado.instanteEnColaPedidos));
+                colaPedidosPendientes.add(bloqueado);
+                camarerosLibres++;
+            }
+            asignarCamareros();
+        }
+    }
+
+    private void anadirAlLote(ClienteSimulado cliente, List<ClienteSimulado> lote) {
+        estadisticas.registrarEsperaPedido(cliente.bebida, msANs(reloj - cliente.instanteEnColaPedidos));
+        lote.add(cliente);
+    }
+
+    /**
+     * Pedidos pendientes en el orden en que los serviría el planificador (el iterador de
+     * PriorityQueue no sigue ese orden).
+     */
+    private List<ClienteSimulado> pedidosEnOrden() {
+        List<ClienteSimulado> pedidos = new ArrayList<>(colaPedidosPendientes);
+        if (colaPedidosPendientes instanceof PriorityQueue<ClienteSimulado> prioridad) {
+            pedidos.sort(prioridad.comparator());
+        }
+        return pedidos;
+    }
+
+    private void finPreparacion(List<ClienteSimulado> lote, long duracion) {
+        baristasLibres++;
+        estadisticas.registrarLote();
+        for (ClienteSimulado cliente : lote) {
+            estadisticas.registrarPedidoPreparado();
+            estadisticas.registrarTrabajo(msANs(duracion) / lote.size(), !cliente.seFue);
+            if (!cliente.seFue) {
+                cliente.servido = true;
+                estadisticas.registrarServido();
+            }
+        }
+        asignarBaristas();
+    }
+
+    /**
+     * Misma ordenación que {@link PlanificadorPedidos#crearCola}, sobre el reloj simulado.
+     */
+    private static Queue<ClienteSimulado> crearColaPedidos(PlanificadorPedidos planificador) {
+        if (planificador == PlanificadorPedidos.FIFO) {
+            return new ArrayDeque<>();
+        }
+        return new PriorityQueue<>(Comparator
+                .comparingLong((ClienteSimulado c) -> planificador.clave(c.bebida, msANs(c.instanteEnColaPedidos)))
+                .thenComparingLong(c -> c.ordenPedido));
+    }
+
+    private static long msANs(long ms) {
+        return ms * 1_000_000L;
+    }
+
+    private void programar(long tiempo, Runnable accion) {
+        eventos.add(new Evento(tiempo, contadorEventos++, accion));
+    }
+
+    /**
+     * Suceso programado en el reloj virtual.
+     */
+    private record Evento(long tiempo, long orden, Runnable accion) {
+    }
+
+    /**
+     * Estado mínimo de un cliente dentro del motor de eventos.
+     */
+    private static class ClienteSimulado {
+        private long instanteEnCola;
+        private long instanteEnColaPedidos;
+        private long ordenPedido;
+        private Bebida bebida;
+        private boolean servido = false;
+        private boolean seFue = false;
+    }
+}
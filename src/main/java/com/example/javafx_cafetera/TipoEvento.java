@@ -0,0 +1,47 @@
+package com.example.javafx_cafetera;
+
+/**
+ * Eventos del ciclo de vida de un cliente y su pedido, tal como se guardan en el diario binario.
+ */
+public enum TipoEvento {
+    /** El cliente entra en la cafetería. */
+    LLEGADA,
+    /** El cliente se pone en la cola de atención. */
+    EN_COLA,
+    /** Un camarero saca al cliente de la cola y empieza a tomarle el pedido. */
+    PEDIDO_TOMADO,
+    /** El camarero intenta meter el pedido en la cola de pedidos pendientes. */
+    PEDIDO_ENCOLADO,
+    /** Un barista empieza a preparar el pedido. */
+    PREPARACION_INICIO,
+    /** El barista termina el pedido. */
+    PREPARACION_FIN,
+    /** El cliente se va con su café. */
+    SERVIDO,
+    /** El cliente se va sin café por falta de paciencia. */
+    ABANDONO,
+    /** La cola de pedidos estaba llena y el pedido se descartó. */
+    PEDIDO_RECHAZADO,
+    /** Un empleado descarta el cliente o pedido de alguien que ya se había ido, sin trabajar en él. */
+    CANCELADO,
+    /** La cola de pedidos estaba llena y el cliente vuelve a la cola de atención para reintentarlo. */
+    PEDIDO_REINTENTO;
+
+    private static final TipoEvento[] VALORES = values();
+
+    // Los tipos nuevos van al final: el código de los existentes no puede cambiar
+
+    /**
+     * Código que se escribe en el diario. El 0 se reserva para "registro vacío".
+     */
+    public int codigo() {
+        return ordinal() + 1;
+    }
+
+    /**
+     * Tipo correspondiente a un código del diario, o null si el código no es válido.
+     */
+    public static TipoEvento desdeCodigo(int codigo) {
+        return codigo >= 1 && codigo <= VALORES.length ? VALORES[codigo - 1] : null;
+    }
+}
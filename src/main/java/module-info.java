@@ -1,6 +1,9 @@
 module com.example.javafx_cafetera {
     requires javafx.controls;
+    requires transitive javafx.graphics;
     requires javafx.fxml;
+    requires java.management;
+    requires jdk.httpserver;
 
 
     opens com.example.javafx_cafetera to javafx.fxml;
@@ -0,0 +1,143 @@
+package com.example.javafx_cafetera;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColaAnilloTest {
+
+    @Test
+    void daVariasVueltasAlAnilloSinPerderElOrden() {
+        ColaAnillo<Integer> cola = new ColaAnillo<>(4);
+        int siguiente = 0;
+        int esperado = 0;
+        // Se llena y se sacan dos en cada ronda: la cabeza va rotando por todas las celdas
+        for (int ronda = 0; ronda < 10; ronda++) {
+            while (cola.offer(siguiente)) {
+                siguiente++;
+            }
+            assertEquals(4, cola.size());
+            assertEquals(0, cola.remainingCapacity());
+            assertEquals(esperado, cola.peek());
+            List<Integer> enOrden = new ArrayList<>(cola);
+            assertEquals(List.of(esperado, esperado + 1, esperado + 2, esperado + 3), enOrden);
+            assertEquals(esperado++, cola.poll());
+            assertEquals(esperado++, cola.poll());
+            assertEquals(2, cola.size());
+        }
+        assertEquals(esperado++, cola.poll());
+        assertEquals(esperado, cola.poll());
+        assertNull(cola.poll());
+        assertNull(cola.peek());
+        assertTrue(cola.isEmpty());
+    }
+
+    @Test
+    void redondeaLaCapacidadAPotenciaDeDos() {
+        assertEquals(1, new ColaAnillo<>(1).remainingCapacity());
+        assertEquals(8, new ColaAnillo<>(5).remainingCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new ColaAnillo<>(0));
+    }
+
+    @Test
+    void soloSeSacanElementosPorLaCabeza() {
+        ColaAnillo<String> cola = new ColaAnillo<>(4);
+        cola.offer("a");
+        cola.offer("b");
+        assertTrue(cola.contains("b"));
+        assertThrows(UnsupportedOperationException.class, () -> cola.remove("b"));
+        assertThrows(UnsupportedOperationException.class, () -> cola.removeAll(List.of("a")));
+        assertThrows(UnsupportedOperationException.class, () -> cola.retainAll(List.of("a")));
+        assertThrows(UnsupportedOperationException.class, () -> cola.removeIf(e -> true));
+        assertThrows(UnsupportedOperationException.class, () -> {
+            var it = cola.iterator();
+            it.next();
+            it.remove();
+        });
+        assertEquals(2, cola.size());
+        assertEquals("a", cola.poll());
+    }
+
+    @Test
+    void cadaElementoSaleUnaVezConVariosProductoresYConsumidores() throws InterruptedException {
+        final int productores = 4;
+        final int consumidores = 4;
+        final int porProductor = 50_000;
+        final int total = productores * porProductor;
+        // Capacidad pequeña para que el anillo dé muchas vueltas y las colas se llenen y vacíen
+        ColaAnillo<Integer> cola = new ColaAnillo<>(16);
+        AtomicLongArray vistos = new AtomicLongArray(total);
+        AtomicInteger recibidos = new AtomicInteger();
+        AtomicLong desordenados = new AtomicLong();
+        List<Thread> hilos = new ArrayList<>();
+
+        for (int p = 0; p < productores; p++) {
+            final int base = p * porProductor;
+            hilos.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < porProductor; i++) {
+                            cola.put(base + i);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < consumidores; c++) {
+            hilos.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    // Lo que un mismo consumidor recibe de un productor debe llegar en orden
+                    int[] ultimo = new int[productores];
+                    Arrays.fill(ultimo, -1);
+                    try {
+                        while (recibidos.get() < total) {
+                            Integer e = cola.poll(10, TimeUnit.MILLISECONDS);
+                            if (e == null) {
+                                continue;
+                            }
+                            vistos.incrementAndGet(e);
+                            recibidos.incrementAndGet();
+                            int productor = e / porProductor;
+                            if (e <= ultimo[productor]) {
+                                desordenados.incrementAndGet();
+                            }
+                            ultimo[productor] = e;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }));
+        }
+        for (Thread hilo : hilos) {
+            hilo.start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(hilo.isAlive(), "un hilo sigue bloqueado: " + hilo.getName());
+        }
+
+        assertEquals(total, recibidos.get());
+        for (int i = 0; i < total; i++) {
+            assertEquals(1L, vistos.get(i), "elemento " + i);
+        }
+        assertEquals(0L, desordenados.get());
+        assertTrue(cola.isEmpty());
+    }
+}
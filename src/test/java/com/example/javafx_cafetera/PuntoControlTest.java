@@ -0,0 +1,73 @@
+package com.example.javafx_cafetera;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PuntoControlTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void seLeeLoMismoQueSeEscribe() throws IOException {
+        EstadisticasSimulacion estadisticas = new EstadisticasSimulacion();
+        for (int i = 0; i < 5; i++) {
+            estadisticas.registrarLlegada();
+        }
+        estadisticas.registrarServido();
+        estadisticas.registrarAbandono();
+        estadisticas.registrarReintento();
+        estadisticas.getEsperaCola().registrar(1_500_000);
+        estadisticas.registrarEsperaPedido(Bebida.FRAPPE, 40_000_000);
+        estadisticas.registrarEsperaPedido(Bebida.ESPRESSO, 2_000_000);
+        List<PuntoControl.ClienteGuardado> clientes = List.of(
+                new PuntoControl.ClienteGuardado("Cliente 1", 9000, 1200, Bebida.CAPUCHINO),
+                new PuntoControl.ClienteGuardado("Cliente 2", 7000, 300, null),
+                new PuntoControl.ClienteGuardado("Cliente 3", 8000, -1, null));
+        PuntoControl original = new PuntoControl("Cafetería", 123_456L, 60_000L, 2, 3, 4, estadisticas, clientes);
+
+        Path ruta = directorio.resolve("cafeteria.ckpt");
+        original.escribir(ruta);
+        PuntoControl leido = PuntoControl.leer(ruta);
+
+        assertEquals(original.nombre(), leido.nombre());
+        assertEquals(original.capturadoMs(), leido.capturadoMs());
+        assertEquals(original.simuladoMs(), leido.simuladoMs());
+        assertEquals(original.numCamareros(), leido.numCamareros());
+        assertEquals(original.numBaristas(), leido.numBaristas());
+        assertEquals(original.clientesDinamicos(), leido.clientesDinamicos());
+        assertEquals(clientes, leido.clientes());
+
+        EstadisticasSimulacion e = leido.estadisticas();
+        assertEquals(5, e.getLlegadas());
+        assertEquals(1, e.getServidos());
+        assertEquals(1, e.getAbandonos());
+        assertEquals(1, e.getReintentos());
+        assertEquals(1, e.getEsperaCola().getTotal());
+        assertEquals(1_500_000, e.getEsperaCola().getSuma());
+        for (Bebida b : Bebida.values()) {
+            assertEquals(estadisticas.getEsperaPedido(b).getTotal(), e.getEsperaPedido(b).getTotal(), b.name());
+            assertEquals(estadisticas.getEsperaPedido(b).getSuma(), e.getEsperaPedido(b).getSuma(), b.name());
+        }
+    }
+
+    @Test
+    void rechazaOtraVersion() throws IOException {
+        Path ruta = directorio.resolve("antiguo.ckpt");
+        try (DataOutputStream salida = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(ruta)))) {
+            salida.writeInt(PuntoControl.MAGICO);
+            salida.writeInt(PuntoControl.VERSION - 1);
+        }
+        assertThrows(IOException.class, () -> PuntoControl.leer(ruta));
+    }
+}